@@ -0,0 +1,55 @@
+package com.xc.mygdxgame;
+
+import java.util.Random;
+
+// Builds reproducible worlds for the benchmarks. Everything random comes from
+// a seeded Random, so two runs measure exactly the same scene.
+final class BenchmarkScenes {
+    static final long SEED = 20240611L;
+    static final float WIDTH = 1280f;
+    static final float HEIGHT = 720f;
+    static final float STEP = 1f / 60f;
+
+    private BenchmarkScenes() {
+    }
+
+    // An easy difficulty world with no monsters, bullets or coins, plane at the left edge
+    static World emptyWorld() {
+        World world = new World(WIDTH, HEIGHT, new GameRandom(SEED));
+        world.setDifficulty(Difficulty.EASY);
+        world.setGun(WaterGunType.BASIC);
+        world.reset();
+        world.monsters.clear();
+        world.setBroadphase(new UniformGridBroadphase(World.MONSTER_WIDTH, WIDTH, HEIGHT));
+        return world;
+    }
+
+    // Spread count monsters over the screen, keeping margin away from every edge
+    static void spawnMonsters(World world, Random random, int count, float margin) {
+        world.monsters.clear();
+        for (int i = 0; i < count; i++) {
+            float x = margin + random.nextFloat() * (WIDTH - World.MONSTER_WIDTH - 2 * margin);
+            float y = random.nextFloat() * (HEIGHT - World.MONSTER_HEIGHT);
+            MonsterType type = MonsterType.values()[random.nextInt(MonsterType.values().length)];
+            Monster monster = world.monsters.spawn(x, y, type);
+            // Spawning straight into the store skips the world's timer streams, draw them here
+            monster.shootInterval = 1.5f + random.nextFloat() * 1.5f;
+            monster.shootTimer = random.nextFloat() * (monster.shootInterval - 2 * STEP);
+        }
+    }
+
+    // Spread count bullets over the screen; enemyShare of them are enemy bullets
+    static void spawnBullets(World world, Random random, int count, float enemyShare, float margin) {
+        BulletStore bullets = world.bullets;
+        bullets.clear();
+        for (int i = 0; i < count; i++) {
+            float x = margin + random.nextFloat() * (WIDTH - World.BULLET_WIDTH - 2 * margin);
+            float y = margin + random.nextFloat() * (HEIGHT - World.BULLET_HEIGHT - 2 * margin);
+            if (random.nextFloat() < enemyShare) {
+                bullets.add(x, y, -World.ENEMY_BULLET_SPEED, 0, BulletStore.FLAG_ENEMY);
+            } else {
+                bullets.add(x, y, World.BASE_BULLET_SPEED, 0, 0);
+            }
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.xc.mygdxgame;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// World.updateBullets: integration and the off-screen sweep. The step flips
+// sign every call so bullets move back and forth in place instead of
+// draining off the screen, which keeps the count steady without a per-call
+// reset. The plane does not fire.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BulletBenchmark {
+    @Param({"10", "1000", "100000"})
+    int bullets;
+
+    private final InputFrame input = new InputFrame();
+    private World world;
+    private float step;
+
+    @Setup(Level.Trial)
+    public void createWorld() {
+        world = BenchmarkScenes.emptyWorld();
+        // Keep every bullet more than one step away from the edges
+        BenchmarkScenes.spawnBullets(world, new Random(BenchmarkScenes.SEED), bullets, 0.2f, 20);
+        step = BenchmarkScenes.STEP;
+    }
+
+    @Benchmark
+    public int updateBullets() {
+        world.updateBullets(step, input);
+        world.events.clear();  // Shots queue events; keep the queue from filling up
+        step = -step;
+        return world.bullets.size;
+    }
+}
@@ -0,0 +1,77 @@
+package com.xc.mygdxgame;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// World.updateCoins: coin movement, pickup against the plane and removal of
+// collected ones. A tenth of the coins start on top of the plane and get
+// picked up, so every call restores the scene first. The coins do not fall,
+// so only the picked up ones change: the restore copies the list back from
+// a snapshot array and reactivates them.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CoinBenchmark {
+    private static final float PICKUP_SHARE = 0.1f;
+
+    @Param({"10", "1000", "100000"})
+    int coins;
+
+    private World world;
+    private Coin[] startCoins;
+    private Coin[] pickups;
+    private int pickupCount;
+
+    @Setup(Level.Trial)
+    public void createWorld() {
+        Random random = new Random(BenchmarkScenes.SEED);
+        world = BenchmarkScenes.emptyWorld();
+        // checkCollisions places the plane's collision box that pickups test against
+        world.checkCollisions(BenchmarkScenes.STEP);
+
+        startCoins = new Coin[coins];
+        pickups = new Coin[coins];
+        for (int i = 0; i < coins; i++) {
+            if (random.nextFloat() < PICKUP_SHARE) {
+                startCoins[i] = new Coin(world.planeX, world.planeY);
+                pickups[pickupCount++] = startCoins[i];
+            } else {
+                // Right of the plane and high enough to stay on screen
+                startCoins[i] = new Coin(200 + random.nextFloat() * (BenchmarkScenes.WIDTH - 200 - World.COIN_WIDTH),
+                    100 + random.nextFloat() * (BenchmarkScenes.HEIGHT - 100 - World.COIN_HEIGHT));
+            }
+        }
+    }
+
+    private void restoreCoins() {
+        // Dropped coins hover where the duck was, so positions never change
+        for (int i = 0; i < pickupCount; i++) {
+            pickups[i].active = true;
+        }
+        world.coins.clear();
+        world.coins.addAll(startCoins, 0, coins);
+        world.events.clear();  // Pickups queue events; keep the queue from filling up
+    }
+
+    @Benchmark
+    public int updateCoins() {
+        restoreCoins();
+        world.updateCoins(BenchmarkScenes.STEP);
+        return world.coins.size;
+    }
+}
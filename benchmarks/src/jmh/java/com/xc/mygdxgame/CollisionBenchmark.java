@@ -0,0 +1,99 @@
+package com.xc.mygdxgame;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// World.checkCollisions with monsters and bullets spread over the screen.
+// Hits remove bullets and kill monsters, so every call restores the scene
+// first. It is built once per trial and the bullets are copied back from
+// snapshot arrays, which costs far less than the collision pass itself.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CollisionBenchmark {
+    @Param({"10", "1000", "100000"})
+    int bullets;
+
+    // The level's usual count and a swarm; the store grows past its preallocated slots
+    @Param({"64", "500"})
+    int monsters;
+
+    @Param({"grid", "sweep"})
+    String broadphase;
+
+    private World world;
+    private Monster[] startMonsters;
+    // Only what checkCollisions reads; remove() leaves the other arrays stale
+    private float[] startX;
+    private float[] startY;
+    private int[] startFlags;
+
+    @Setup(Level.Trial)
+    public void createWorld() {
+        Random random = new Random(BenchmarkScenes.SEED);
+        world = BenchmarkScenes.emptyWorld();
+        world.setBroadphase("grid".equals(broadphase)
+            ? new UniformGridBroadphase(World.MONSTER_WIDTH, BenchmarkScenes.WIDTH, BenchmarkScenes.HEIGHT)
+            : new SortAndSweepBroadphase());
+        BenchmarkScenes.spawnMonsters(world, random, monsters, 0);
+        BenchmarkScenes.spawnBullets(world, random, bullets, 0.2f, 0);
+
+        startMonsters = new Monster[monsters];
+        for (int i = 0; i < monsters; i++) {
+            startMonsters[i] = world.monsters.get(i);
+        }
+        BulletStore store = world.bullets;
+        startX = new float[bullets];
+        startY = new float[bullets];
+        startFlags = new int[bullets];
+        System.arraycopy(store.x, 0, startX, 0, bullets);
+        System.arraycopy(store.y, 0, startY, 0, bullets);
+        System.arraycopy(store.flags, 0, startFlags, 0, bullets);
+    }
+
+    private void restoreScene() {
+        BulletStore store = world.bullets;
+        System.arraycopy(startX, 0, store.x, 0, bullets);
+        System.arraycopy(startY, 0, store.y, 0, bullets);
+        System.arraycopy(startFlags, 0, store.flags, 0, bullets);
+        store.size = bullets;
+
+        // Killed monsters are only marked inactive until the store compacts
+        for (int i = 0; i < monsters; i++) {
+            Monster monster = startMonsters[i];
+            monster.active = true;
+            monster.health = 3;
+        }
+
+        world.lives = 3;
+        world.isInvincible = false;
+        world.invincibleTimer = 0;
+        world.isGameOver = false;
+        world.currentScore = 0;
+        world.ducksKilled = 0;
+        world.coins.clear();
+        world.events.clear();
+    }
+
+    @Benchmark
+    public int checkCollisions() {
+        restoreScene();
+        world.checkCollisions(BenchmarkScenes.STEP);
+        return world.bullets.size;
+    }
+}
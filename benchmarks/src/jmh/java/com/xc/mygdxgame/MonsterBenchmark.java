@@ -0,0 +1,49 @@
+package com.xc.mygdxgame;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// World.updateMonsters: movement and shooting timers. Like BulletBenchmark the
+// step flips sign every call so monsters stay on screen. Shoot timers start
+// more than two steps below their interval, so no monster fires and the
+// bullet count stays at zero; in the game a monster fires about once every
+// 120 steps, so this is the common path.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MonsterBenchmark {
+    @Param({"10", "1000", "100000"})
+    int monsters;
+
+    private World world;
+    private float step;
+
+    @Setup(Level.Trial)
+    public void createWorld() {
+        world = BenchmarkScenes.emptyWorld();
+        BenchmarkScenes.spawnMonsters(world, new Random(BenchmarkScenes.SEED), monsters, 20);
+        step = BenchmarkScenes.STEP;
+    }
+
+    @Benchmark
+    public int updateMonsters() {
+        world.updateMonsters(step);
+        step = -step;
+        return world.monsters.size;
+    }
+}
@@ -0,0 +1,87 @@
+package com.xc.mygdxgame;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// WATER_GUN_4 auto-aim target lookup through the monster spatial index, with
+// the plane cycling through a fixed set of positions. linearScan is the
+// brute force search the index replaced, for comparison.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NearestEnemyBenchmark {
+    private static final int POSITIONS = 64;
+
+    @Param({"10", "1000", "100000"})
+    int monsters;
+
+    @Param({"grid", "sweep"})
+    String broadphase;
+
+    private World world;
+    private final float[] planeX = new float[POSITIONS];
+    private final float[] planeY = new float[POSITIONS];
+    private int next;
+
+    @Setup(Level.Trial)
+    public void createWorld() {
+        Random random = new Random(BenchmarkScenes.SEED);
+        world = BenchmarkScenes.emptyWorld();
+        BenchmarkScenes.spawnMonsters(world, random, monsters, 0);
+        for (int i = 0; i < POSITIONS; i++) {
+            planeX[i] = random.nextFloat() * (BenchmarkScenes.WIDTH - World.PLANE_WIDTH);
+            planeY[i] = random.nextFloat() * (BenchmarkScenes.HEIGHT - World.PLANE_HEIGHT);
+        }
+        // Builds the index over the monsters
+        world.setBroadphase("grid".equals(broadphase)
+            ? new UniformGridBroadphase(World.MONSTER_WIDTH, BenchmarkScenes.WIDTH, BenchmarkScenes.HEIGHT)
+            : new SortAndSweepBroadphase());
+    }
+
+    private void movePlane() {
+        next = (next + 1) % POSITIONS;
+        world.planeX = planeX[next];
+        world.planeY = planeY[next];
+    }
+
+    @Benchmark
+    public Monster findNearestEnemy() {
+        movePlane();
+        return world.findNearestEnemy();
+    }
+
+    @Benchmark
+    public Monster linearScan() {
+        movePlane();
+        Monster nearest = null;
+        float minDist = Float.MAX_VALUE;
+        MonsterStore store = world.monsters;
+        for (int i = 0; i < store.size; i++) {
+            Monster monster = store.get(i);
+            if (!monster.active) continue;
+            float dx = monster.x - world.planeX;
+            float dy = monster.y - world.planeY;
+            float dist = dx * dx + dy * dy;
+            if (dist < minDist) {
+                minDist = dist;
+                nearest = monster;
+            }
+        }
+        return nearest;
+    }
+}
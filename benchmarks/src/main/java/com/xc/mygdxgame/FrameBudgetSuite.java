@@ -0,0 +1,318 @@
+package com.xc.mygdxgame;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.backends.headless.HeadlessApplicationConfiguration;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+
+// Frame budget regression suite. Runs scripted gameplay on the headless
+// backend, several thousand ticks per scenario, and compares p99 sample time
+// and allocated bytes per tick against a checked-in baseline.
+//
+//   FrameBudgetSuite <baseline.properties> [--update]
+//
+// A tick takes a few microseconds, so a sample is a run of ticks, timed in
+// thread CPU time so being descheduled does not count. Each scenario runs
+// several rounds and keeps the quietest. Times are relative to a fixed
+// calibration workload timed in the same round, so the baseline carries
+// over between machines. Exits with 1 if any scenario goes over its
+// baseline (times the tolerance); --update rewrites the baseline instead.
+public class FrameBudgetSuite {
+    private static final long SEED = 20240611L;
+    private static final int SAMPLES = 500;
+    private static final int TICKS_PER_SAMPLE = 50;
+    private static final int WARMUP_TICKS = 5000;
+    private static final int ROUNDS = 5;  // Measured runs per scenario, the quietest one counts
+    private static final float STEP = 1f / 60f;
+
+    // Over-baseline allowance; time is noisy, allocations should not move at
+    // all. Both limits are relative, so a 2x slowdown fails at any size
+    private static final float DEFAULT_TIME_TOLERANCE = 1.5f;
+    private static final float DEFAULT_BYTES_TOLERANCE = 1.1f;
+    private static final long BYTES_SLACK = 64;
+
+    // Calibration: pairwise overlap tests between fixed boxes, close to what
+    // a tick spends its time on but independent of the game code
+    private static final int CALIBRATION_BOXES = 400;
+    private static final int CALIBRATION_SAMPLES = 100;
+
+    // A scripted run: how to set the world up and what to hold it at each tick
+    private abstract static class Scenario {
+        final String name;
+        final Difficulty difficulty;
+        final WaterGunType gun;
+
+        Scenario(String name, Difficulty difficulty, WaterGunType gun) {
+            this.name = name;
+            this.difficulty = difficulty;
+            this.gun = gun;
+        }
+
+        void setUp(World world) {
+        }
+
+        // Keep the run going; the script never dies and never finishes the level
+        void beforeTick(World world) {
+            world.lives = World.MAX_LIVES;
+        }
+    }
+
+    // Regular waves; the score is held under the boss threshold
+    private static Scenario waves(Difficulty difficulty) {
+        return new Scenario(difficulty.name().toLowerCase() + ".waves", difficulty, WaterGunType.BASIC) {
+            @Override
+            void beforeTick(World world) {
+                super.beforeTick(world);
+                if (world.currentScore >= world.getBossSpawnScore()) {
+                    world.currentScore = 0;
+                }
+            }
+        };
+    }
+
+    // Boss fight from the first tick; the boss never goes down
+    private static Scenario boss(Difficulty difficulty) {
+        return new Scenario(difficulty.name().toLowerCase() + ".boss", difficulty, WaterGunType.BASIC) {
+            @Override
+            void setUp(World world) {
+                world.currentScore = world.getBossSpawnScore();
+            }
+
+            @Override
+            void beforeTick(World world) {
+                super.beforeTick(world);
+                world.bossHealth = world.getBossMaxHealth();
+            }
+        };
+    }
+
+    // Max level WATER_GUN_4: triple shot plus auto-aim at the nearest duck
+    private static Scenario autoFire() {
+        return new Scenario("hard.water_gun_4", Difficulty.HARD, WaterGunType.WATER_GUN_4) {
+            @Override
+            void setUp(World world) {
+                while (WaterGunType.WATER_GUN_4.canUpgrade()) {
+                    WaterGunType.WATER_GUN_4.upgrade();
+                }
+            }
+
+            @Override
+            void beforeTick(World world) {
+                super.beforeTick(world);
+                if (world.currentScore >= world.getBossSpawnScore()) {
+                    world.currentScore = 0;
+                }
+            }
+        };
+    }
+
+    private static final class Result {
+        long p99Nanos;
+        long bytesPerTick;
+    }
+
+    private final com.sun.management.ThreadMXBean threads =
+        (com.sun.management.ThreadMXBean)ManagementFactory.getThreadMXBean();
+    private final long[] sampleNanos = new long[SAMPLES];
+    private final InputFrame input = new InputFrame();
+    private int calibrationSink;  // Keeps the calibration loop from being optimized away
+
+    private Result run(Scenario scenario, int ticks, boolean measure) {
+        World world = new World(1280f, 720f, new GameRandom(SEED));
+        world.setDifficulty(scenario.difficulty);
+        world.setGun(scenario.gun);
+        world.reset();
+        scenario.setUp(world);
+
+        long threadId = Thread.currentThread().getId();
+        long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+        long sampleStart = threads.getCurrentThreadCpuTime();
+        for (int tick = 0; tick < ticks; tick++) {
+            scenario.beforeTick(world);
+            script(tick);
+            world.step(STEP, input);
+            world.events.clear();  // Nothing consumes them here
+            if ((tick + 1) % TICKS_PER_SAMPLE == 0) {
+                long now = threads.getCurrentThreadCpuTime();
+                if (measure) sampleNanos[tick / TICKS_PER_SAMPLE] = now - sampleStart;
+                sampleStart = now;
+            }
+        }
+        long allocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+
+        Result result = new Result();
+        if (measure) {
+            result.p99Nanos = percentile(sampleNanos, ticks / TICKS_PER_SAMPLE, 0.99);
+            result.bytesPerTick = allocated / ticks;
+        }
+        return result;
+    }
+
+    private static long percentile(long[] values, int count, double fraction) {
+        long[] sorted = Arrays.copyOf(values, count);
+        Arrays.sort(sorted);
+        return sorted[(int)Math.ceil(count * fraction) - 1];
+    }
+
+    // Median time of the calibration workload
+    private long calibrate() {
+        Random random = new Random(SEED);
+        float[] x = new float[CALIBRATION_BOXES];
+        float[] y = new float[CALIBRATION_BOXES];
+        for (int i = 0; i < CALIBRATION_BOXES; i++) {
+            x[i] = random.nextFloat() * 1280f;
+            y[i] = random.nextFloat() * 720f;
+        }
+        long[] nanos = new long[CALIBRATION_SAMPLES];
+        for (int sample = 0; sample < CALIBRATION_SAMPLES; sample++) {
+            long start = threads.getCurrentThreadCpuTime();
+            calibrationSink += countOverlaps(x, y);
+            nanos[sample] = threads.getCurrentThreadCpuTime() - start;
+        }
+        return percentile(nanos, CALIBRATION_SAMPLES, 0.5);
+    }
+
+    private static int countOverlaps(float[] x, float[] y) {
+        int overlaps = 0;
+        for (int i = 0; i < x.length; i++) {
+            for (int j = i + 1; j < x.length; j++) {
+                if (Math.abs(x[i] - x[j]) < 60f && Math.abs(y[i] - y[j]) < 60f) overlaps++;
+            }
+        }
+        return overlaps;
+    }
+
+    // Hold fire and sweep up and down the screen, one second each way
+    private void script(int tick) {
+        boolean up = (tick / 60) % 2 == 0;
+        input.set(up, !up, false, false, true);
+    }
+
+    // Returns true if every scenario is within its baseline
+    boolean runAll(File baselineFile, boolean update) throws IOException {
+        if (threads.isThreadAllocatedMemorySupported()) {
+            threads.setThreadAllocatedMemoryEnabled(true);
+        } else {
+            System.err.println("Thread allocation counters are not supported, allocations read as 0");
+        }
+        if (!threads.isCurrentThreadCpuTimeSupported()) {
+            System.err.println("Thread CPU time is not supported, cannot time the scenarios");
+            return false;
+        }
+
+        Properties baseline = new Properties();
+        if (baselineFile.exists()) {
+            InputStream in = new FileInputStream(baselineFile);
+            try {
+                baseline.load(in);
+            } finally {
+                in.close();
+            }
+        }
+        float timeTolerance = Float.parseFloat(baseline.getProperty("tolerance.time", "" + DEFAULT_TIME_TOLERANCE));
+        float bytesTolerance = Float.parseFloat(baseline.getProperty("tolerance.bytes", "" + DEFAULT_BYTES_TOLERANCE));
+
+        Scenario[] scenarios = {
+            waves(Difficulty.EASY), waves(Difficulty.NORMAL), waves(Difficulty.HARD),
+            boss(Difficulty.EASY), boss(Difficulty.NORMAL), boss(Difficulty.HARD),
+            autoFire()
+        };
+
+        boolean passed = true;
+        Properties measured = new Properties();
+        measured.setProperty("tolerance.time", "" + timeTolerance);
+        measured.setProperty("tolerance.bytes", "" + bytesTolerance);
+        for (int pass = 0; pass < 3; pass++) {
+            calibrate();  // Warm up
+        }
+        System.out.println(String.format("%-20s %10s %10s %10s %14s %14s", "scenario", "p99 us", "relative", "limit",
+            "bytes/tick", "limit"));
+        for (Scenario scenario : scenarios) {
+            // Warm the JIT up on the same scenario before measuring
+            run(scenario, WARMUP_TICKS, false);
+            Result result = new Result();
+            float p99Relative = Float.MAX_VALUE;
+            for (int round = 0; round < ROUNDS; round++) {
+                // Calibrated again each round, the machine's speed drifts too
+                long calibrationNanos = Math.max(1, calibrate());
+                Result next = run(scenario, SAMPLES * TICKS_PER_SAMPLE, true);
+                float relative = (float)next.p99Nanos / calibrationNanos;
+                if (relative < p99Relative) {
+                    p99Relative = relative;
+                    result.p99Nanos = next.p99Nanos;
+                }
+                result.bytesPerTick = Math.max(result.bytesPerTick, next.bytesPerTick);
+            }
+            measured.setProperty(scenario.name + ".p99Relative", String.format(Locale.ROOT, "%.4f", p99Relative));
+            measured.setProperty(scenario.name + ".bytesPerTick", "" + result.bytesPerTick);
+
+            String p99Baseline = baseline.getProperty(scenario.name + ".p99Relative");
+            String bytesBaseline = baseline.getProperty(scenario.name + ".bytesPerTick");
+            float p99Limit = p99Baseline == null ? -1 : Float.parseFloat(p99Baseline) * timeTolerance;
+            long bytesLimit = bytesBaseline == null ? -1 : (long)(Long.parseLong(bytesBaseline) * bytesTolerance) + BYTES_SLACK;
+            boolean over = (p99Limit >= 0 && p99Relative > p99Limit) || (bytesLimit >= 0 && result.bytesPerTick > bytesLimit);
+            if (!update && (p99Limit < 0 || bytesLimit < 0)) {
+                System.err.println("No baseline for " + scenario.name);
+                over = true;
+            }
+            System.out.println(String.format(Locale.ROOT, "%-20s %10d %10.3f %10.3f %14d %14d%s", scenario.name,
+                result.p99Nanos / 1000, p99Relative, p99Limit, result.bytesPerTick, bytesLimit,
+                over && !update ? "  OVER BUDGET" : ""));
+            passed &= !over;
+        }
+
+        if (update) {
+            OutputStream out = new FileOutputStream(baselineFile);
+            try {
+                measured.store(out, "Frame budget baseline, regenerate with ./gradlew benchmarks:frameBudget -PupdateBaseline");
+            } finally {
+                out.close();
+            }
+            System.out.println("Baseline written to " + baselineFile);
+            return true;
+        }
+        return passed;
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        if (args.length < 1) {
+            System.err.println("Usage: FrameBudgetSuite <baseline.properties> [--update]");
+            System.exit(2);
+        }
+        final File baselineFile = new File(args[0]);
+        final boolean update = args.length > 1 && "--update".equals(args[1]);
+        final boolean[] passed = new boolean[1];
+        final CountDownLatch done = new CountDownLatch(1);
+
+        HeadlessApplicationConfiguration config = new HeadlessApplicationConfiguration();
+        config.updatesPerSecond = -1;  // Only create() is used
+        new HeadlessApplication(new ApplicationAdapter() {
+            @Override
+            public void create() {
+                try {
+                    passed[0] = new FrameBudgetSuite().runAll(baselineFile, update);
+                } catch (Exception e) {
+                    e.printStackTrace();
+                } finally {
+                    done.countDown();
+                    Gdx.app.exit();
+                }
+            }
+        }, config);
+
+        done.await();
+        System.exit(passed[0] ? 0 : 1);
+    }
+}
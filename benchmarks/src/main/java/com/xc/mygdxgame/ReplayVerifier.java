@@ -0,0 +1,100 @@
+package com.xc.mygdxgame;
+
+import java.io.BufferedInputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+// Plays a recorded level back as fast as the simulation runs and checks the
+// world checksums the recording has. Reports the first checked tick that
+// diverges, and the slowest ticks so a reported frame spike can be found and
+// profiled. The game records a checksum every replayChecksumInterval ticks,
+// once a second unless the preference says otherwise; a recording made with
+// the interval set to 0 is only played through.
+//
+//   ReplayVerifier <file.replay>
+//
+// World has no Gdx dependency, so no backend is started.
+public class ReplayVerifier {
+    private static final int SLOWEST = 5;
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: ReplayVerifier <file.replay>");
+            System.exit(2);
+        }
+        Replay replay;
+        InputStream in = new BufferedInputStream(new FileInputStream(args[0]));
+        try {
+            replay = Replay.read(in);
+        } finally {
+            in.close();
+        }
+        System.exit(verify(replay) ? 0 : 1);
+    }
+
+    static boolean verify(Replay replay) {
+        System.out.println("Seed " + replay.seed + ", " + replay.difficulty + ", " + replay.gun
+            + " level " + replay.gunLevel + ", " + replay.width + "x" + replay.height
+            + ", " + replay.getTicks() + " ticks");
+        if (replay.getChecksumInterval() == 0) {
+            System.out.println("No checksums recorded, nothing to compare against; replayChecksumInterval was 0");
+        }
+
+        World world = replay.createWorld();
+        InputFrame input = new InputFrame();
+        long[] slowestNanos = new long[SLOWEST];
+        int[] slowestTicks = new int[SLOWEST];
+        int tick = 0;
+        int pausedFrames = 0;
+        long start = System.nanoTime();
+
+        for (int run = 0; run < replay.getRunCount(); run++) {
+            int bits = replay.getRunBits(run);
+            int length = replay.getRunLength(run);
+            if ((bits & Replay.PAUSE) != 0) {
+                pausedFrames += length;
+                continue;
+            }
+            Replay.toInput(bits, input);
+            for (int i = 0; i < length; i++, tick++) {
+                long tickStart = System.nanoTime();
+                world.step(replay.stepTime, input);
+                world.events.clear();  // Side effects only, nothing to check
+                long elapsed = System.nanoTime() - tickStart;
+                keepSlowest(slowestNanos, slowestTicks, elapsed, tick);
+
+                if (!replay.hasChecksum(tick)) continue;
+                int checksum = world.checksum();
+                if (checksum != replay.getChecksum(tick)) {
+                    System.out.println("Diverged at tick " + tick + " (" + (tick * replay.stepTime) + " s): checksum "
+                        + Integer.toHexString(checksum) + ", recorded " + Integer.toHexString(replay.getChecksum(tick)));
+                    return false;
+                }
+            }
+        }
+
+        float wallSeconds = (System.nanoTime() - start) / 1e9f;
+        float gameSeconds = tick * replay.stepTime;
+        System.out.println("OK, " + tick + " ticks (" + gameSeconds + " s of play, " + pausedFrames
+            + " paused frames) in " + wallSeconds + " s, " + Math.round(gameSeconds / Math.max(wallSeconds, 1e-6f)) + "x real time");
+        System.out.println("Slowest ticks:");
+        for (int i = 0; i < SLOWEST && slowestNanos[i] > 0; i++) {
+            System.out.println("  tick " + slowestTicks[i] + ": " + slowestNanos[i] / 1000 + " us");
+        }
+        return true;
+    }
+
+    // Insert into the descending top list
+    private static void keepSlowest(long[] nanos, int[] ticks, long elapsed, int tick) {
+        if (elapsed <= nanos[nanos.length - 1]) return;
+        int i = nanos.length - 1;
+        while (i > 0 && nanos[i - 1] < elapsed) {
+            nanos[i] = nanos[i - 1];
+            ticks[i] = ticks[i - 1];
+            i--;
+        }
+        nanos[i] = elapsed;
+        ticks[i] = tick;
+    }
+}
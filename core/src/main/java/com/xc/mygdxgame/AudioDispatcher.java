@@ -0,0 +1,191 @@
+package com.xc.mygdxgame;
+
+import com.badlogic.gdx.audio.Sound;
+
+// Plays sound effects once a frame instead of on every trigger. Triggers of
+// the same sound within a frame are merged into one play at the loudest
+// volume. Each sound has its own voice limit and all sounds share a global
+// one; a new play takes the oldest voice of its own sound, or the oldest
+// voice of the lowest priority sound that is not above its own, and is
+// dropped when there is none. Sound has no completion callback, so a voice
+// counts as playing for the sound's registered length.
+public final class AudioDispatcher {
+    private static final int MAX_SOUNDS = 16;
+
+    // Registered sounds in parallel arrays, by handle
+    private final Sound[] sounds = new Sound[MAX_SOUNDS];
+    private final int[] voiceLimits = new int[MAX_SOUNDS];
+    private final int[] priorities = new int[MAX_SOUNDS];
+    private final float[] lengths = new float[MAX_SOUNDS];
+    private final int[] activeVoices = new int[MAX_SOUNDS];
+    private final float[] pendingVolumes = new float[MAX_SOUNDS];  // Negative when not triggered this frame
+    private int soundCount;
+
+    // Sounds triggered this frame, in trigger order until update sorts them
+    private final int[] pending = new int[MAX_SOUNDS];
+    private int pendingCount;
+
+    // Playing voices, oldest first
+    private final int maxVoices;
+    private final int[] voiceSounds;
+    private final long[] voiceIds;
+    private final float[] voiceEnds;
+    private int voiceCount;
+    private float time;
+
+    private int played;
+    private int merged;
+    private int dropped;
+    private int stolen;
+
+    public AudioDispatcher(int maxVoices) {
+        this.maxVoices = Math.max(1, maxVoices);
+        voiceSounds = new int[this.maxVoices];
+        voiceIds = new long[this.maxVoices];
+        voiceEnds = new float[this.maxVoices];
+    }
+
+    // Add a sound and return its handle. The Sound itself can be set later,
+    // once it is loaded; higher priorities win voices from lower ones
+    public int register(int voiceLimit, int priority, float length) {
+        if (soundCount == MAX_SOUNDS) throw new IllegalStateException("Too many sounds: " + soundCount);
+        int handle = soundCount++;
+        voiceLimits[handle] = Math.max(1, voiceLimit);
+        priorities[handle] = priority;
+        lengths[handle] = length;
+        pendingVolumes[handle] = -1;
+        return handle;
+    }
+
+    public void setSound(int handle, Sound sound) {
+        sounds[handle] = sound;
+    }
+
+    // Trigger a sound for this frame; nothing is played until update
+    public void play(int handle, float volume) {
+        if (sounds[handle] == null) return;
+        if (pendingVolumes[handle] >= 0) {
+            merged++;
+            pendingVolumes[handle] = Math.max(pendingVolumes[handle], volume);
+            return;
+        }
+        pendingVolumes[handle] = volume;
+        pending[pendingCount++] = handle;
+    }
+
+    // Retire finished voices and play what was triggered this frame, highest
+    // priority first. Call once per frame after everything that triggers sounds
+    public void update(float deltaTime) {
+        time += deltaTime;
+        int kept = 0;
+        for (int i = 0; i < voiceCount; i++) {
+            if (voiceEnds[i] > time) {
+                copyVoice(i, kept++);
+            } else {
+                activeVoices[voiceSounds[i]]--;
+            }
+        }
+        voiceCount = kept;
+
+        // Insertion sort, there are only a few; equal priorities keep trigger order
+        for (int i = 1; i < pendingCount; i++) {
+            int handle = pending[i];
+            int j = i - 1;
+            while (j >= 0 && priorities[pending[j]] < priorities[handle]) {
+                pending[j + 1] = pending[j];
+                j--;
+            }
+            pending[j + 1] = handle;
+        }
+
+        for (int i = 0; i < pendingCount; i++) {
+            int handle = pending[i];
+            start(handle, pendingVolumes[handle]);
+            pendingVolumes[handle] = -1;
+        }
+        pendingCount = 0;
+    }
+
+    private void start(int handle, float volume) {
+        if (activeVoices[handle] >= voiceLimits[handle]) {
+            stopVoice(findVoice(handle));
+        } else if (voiceCount == maxVoices) {
+            int victim = findLowestPriorityVoice();
+            if (priorities[voiceSounds[victim]] > priorities[handle]) {
+                dropped++;
+                return;
+            }
+            stopVoice(victim);
+        }
+
+        long id = sounds[handle].play(volume);
+        if (id == -1) {
+            // The backend ran out of voices itself
+            dropped++;
+            return;
+        }
+        played++;
+        voiceSounds[voiceCount] = handle;
+        voiceIds[voiceCount] = id;
+        voiceEnds[voiceCount] = time + lengths[handle];
+        voiceCount++;
+        activeVoices[handle]++;
+    }
+
+    // Oldest voice of handle
+    private int findVoice(int handle) {
+        for (int i = 0; i < voiceCount; i++) {
+            if (voiceSounds[i] == handle) return i;
+        }
+        return -1;
+    }
+
+    // Oldest voice among those with the lowest priority
+    private int findLowestPriorityVoice() {
+        int victim = 0;
+        for (int i = 1; i < voiceCount; i++) {
+            if (priorities[voiceSounds[i]] < priorities[voiceSounds[victim]]) victim = i;
+        }
+        return victim;
+    }
+
+    private void stopVoice(int index) {
+        int handle = voiceSounds[index];
+        sounds[handle].stop(voiceIds[index]);
+        activeVoices[handle]--;
+        stolen++;
+        for (int i = index + 1; i < voiceCount; i++) {
+            copyVoice(i, i - 1);
+        }
+        voiceCount--;
+    }
+
+    private void copyVoice(int from, int to) {
+        voiceSounds[to] = voiceSounds[from];
+        voiceIds[to] = voiceIds[from];
+        voiceEnds[to] = voiceEnds[from];
+    }
+
+    // Counters since the start: plays that reached the backend, triggers
+    // merged into another in the same frame, plays refused for lack of a
+    // voice, and voices cut short for a new play
+    public int getPlayed() {
+        return played;
+    }
+
+    public int getMerged() {
+        return merged;
+    }
+
+    public int getDropped() {
+        return dropped;
+    }
+
+    public int getStolen() {
+        return stolen;
+    }
+
+    public int getVoiceCount() {
+        return voiceCount;
+    }
+}
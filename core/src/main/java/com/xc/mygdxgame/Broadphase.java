@@ -0,0 +1,23 @@
+package com.xc.mygdxgame;
+
+import com.badlogic.gdx.utils.IntArray;
+
+// Coarse collision filter. The world inserts every collidable box once per
+// step, calls build(), then asks for the boxes that may overlap a query box.
+// Candidates still have to go through the exact overlap test.
+public interface Broadphase extends SpatialIndex {
+    // Called when the world bounds change
+    void setBounds(float worldWidth, float worldHeight);
+
+    // Forget all boxes from the previous step
+    void clear();
+
+    // Add a box; id is handed back by query()
+    void insert(int id, float x, float y, float width, float height);
+
+    // Prepare the inserted boxes for queries
+    void build();
+
+    // Replace out with the ids of boxes that may overlap the query box, each id once
+    void query(float x, float y, float width, float height, IntArray out);
+}
@@ -0,0 +1,116 @@
+package com.xc.mygdxgame;
+
+// Structure-of-arrays storage for every bullet in the world.
+// Bullets live in parallel primitive arrays so firing and moving them creates
+// no garbage, and removal swaps the last bullet into the freed slot (order is
+// not preserved).
+public final class BulletStore {
+    static final int FLAG_ENEMY = 1;       // Fired by a duck or the boss
+    static final int FLAG_BLOCKING = 1 << 1;  // Player bullet that can block enemy bullets
+
+    float[] x;
+    float[] y;
+    float[] prevX;  // Position at the previous simulation step, used for interpolation
+    float[] prevY;
+    float[] velocityX;
+    float[] velocityY;
+    int[] flags;
+    int size;
+
+    public BulletStore(int capacity) {
+        allocate(Math.max(1, capacity));
+    }
+
+    // Add a bullet and return its index
+    public int add(float x, float y, float velocityX, float velocityY, int flags) {
+        if (size == this.x.length) {
+            // Only grows past the preallocated capacity, never shrinks
+            grow(size * 2);
+        }
+        int i = size++;
+        this.x[i] = x;
+        this.y[i] = y;
+        this.prevX[i] = x;
+        this.prevY[i] = y;
+        this.velocityX[i] = velocityX;
+        this.velocityY[i] = velocityY;
+        this.flags[i] = flags;
+        return i;
+    }
+
+    // Remove the bullet at index by moving the last bullet into its slot
+    public void remove(int index) {
+        int last = --size;
+        if (index != last) {
+            x[index] = x[last];
+            y[index] = y[last];
+            prevX[index] = prevX[last];
+            prevY[index] = prevY[last];
+            velocityX[index] = velocityX[last];
+            velocityY[index] = velocityY[last];
+            flags[index] = flags[last];
+        }
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    public int capacity() {
+        return x.length;
+    }
+
+    public boolean isEnemy(int index) {
+        return (flags[index] & FLAG_ENEMY) != 0;
+    }
+
+    public boolean canBlockEnemyBullets(int index) {
+        return (flags[index] & FLAG_BLOCKING) != 0;
+    }
+
+    // Move every bullet by its velocity
+    public void integrate(float deltaTime) {
+        final float[] x = this.x, y = this.y, prevX = this.prevX, prevY = this.prevY;
+        final float[] velocityX = this.velocityX, velocityY = this.velocityY;
+        final int n = size;
+        for (int i = 0; i < n; i++) {
+            prevX[i] = x[i];
+            prevY[i] = y[i];
+            x[i] += velocityX[i] * deltaTime;
+            y[i] += velocityY[i] * deltaTime;
+        }
+    }
+
+    // Remove bullets outside [0, width] x [0, height]
+    public void removeOutside(float width, float height) {
+        for (int i = size - 1; i >= 0; i--) {
+            if (x[i] > width || x[i] < 0 || y[i] > height || y[i] < 0) {
+                remove(i);
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        x = new float[capacity];
+        y = new float[capacity];
+        prevX = new float[capacity];
+        prevY = new float[capacity];
+        velocityX = new float[capacity];
+        velocityY = new float[capacity];
+        flags = new int[capacity];
+    }
+
+    private void grow(int capacity) {
+        float[] oldX = x, oldY = y, oldPrevX = prevX, oldPrevY = prevY;
+        float[] oldVelocityX = velocityX, oldVelocityY = velocityY;
+        int[] oldFlags = flags;
+        allocate(capacity);
+        System.arraycopy(oldX, 0, x, 0, size);
+        System.arraycopy(oldY, 0, y, 0, size);
+        System.arraycopy(oldPrevX, 0, prevX, 0, size);
+        System.arraycopy(oldPrevY, 0, prevY, 0, size);
+        System.arraycopy(oldVelocityX, 0, velocityX, 0, size);
+        System.arraycopy(oldVelocityY, 0, velocityY, 0, size);
+        System.arraycopy(oldFlags, 0, flags, 0, size);
+    }
+}
@@ -0,0 +1,18 @@
+package com.xc.mygdxgame;
+
+// Coin class
+class Coin {
+    float x;
+    float y;
+    float prevY;  // Position at the previous simulation step, used for interpolation
+    float velocityY;
+    boolean active;
+    
+    public Coin(float x, float y) {
+        this.x = x;
+        this.y = y;
+        this.prevY = y;
+        this.velocityY = 0; // Default no falling
+        this.active = true;
+    }
+}
@@ -0,0 +1,9 @@
+package com.xc.mygdxgame;
+
+// Difficulty enumeration
+enum Difficulty {
+        EASY,
+        NORMAL,
+        HARD,
+    COMPLETE
+}
@@ -0,0 +1,18 @@
+package com.xc.mygdxgame;
+
+// Difficulty settings class
+class DifficultySettings {
+    float duckSpeed;         // Duck movement speed
+    float duckVerticalSpeed; // Duck vertical movement speed
+    int duckCount;          // Number of ducks
+    float shootInterval;     // Shooting interval
+    float waterPower;       // Water gun power
+    
+    public DifficultySettings(float speed, float vSpeed, int count, float interval, float power) {
+        this.duckSpeed = speed;
+        this.duckVerticalSpeed = vSpeed;
+        this.duckCount = count;
+        this.shootInterval = interval;
+        this.waterPower = power;
+    }
+}
@@ -0,0 +1,64 @@
+package com.xc.mygdxgame;
+
+// Turns variable frame times into a whole number of fixed simulation steps.
+// The time left over after the last step is exposed as an alpha in [0, 1)
+// so the renderer can interpolate between the previous and current step.
+public final class FixedStepLoop {
+    private float stepTime;
+    private int maxStepsPerFrame;
+    private float accumulator;
+    private int droppedSteps;
+
+    public FixedStepLoop(int ticksPerSecond, int maxStepsPerFrame) {
+        setTickRate(ticksPerSecond);
+        setMaxStepsPerFrame(maxStepsPerFrame);
+    }
+
+    public void setTickRate(int ticksPerSecond) {
+        if (ticksPerSecond <= 0) {
+            throw new IllegalArgumentException("ticksPerSecond must be positive: " + ticksPerSecond);
+        }
+        this.stepTime = 1f / ticksPerSecond;
+    }
+
+    public void setMaxStepsPerFrame(int maxStepsPerFrame) {
+        if (maxStepsPerFrame <= 0) {
+            throw new IllegalArgumentException("maxStepsPerFrame must be positive: " + maxStepsPerFrame);
+        }
+        this.maxStepsPerFrame = maxStepsPerFrame;
+    }
+
+    // Add the frame time and return how many steps to run this frame
+    public int advance(float frameDelta) {
+        accumulator += Math.max(0, frameDelta);
+
+        int steps = (int)(accumulator / stepTime);
+        if (steps > maxStepsPerFrame) {
+            // Too far behind (frame spike, breakpoint, window drag): drop the
+            // surplus instead of running an ever growing number of catch-up steps
+            droppedSteps += steps - maxStepsPerFrame;
+            steps = maxStepsPerFrame;
+            accumulator = steps * stepTime + accumulator % stepTime;
+        }
+        accumulator -= steps * stepTime;
+        return steps;
+    }
+
+    // Forget pending time, e.g. when a level starts or the game resumes
+    public void reset() {
+        accumulator = 0;
+    }
+
+    public float getStepTime() {
+        return stepTime;
+    }
+
+    // Fraction of a step between the last simulated step and the current frame
+    public float getAlpha() {
+        return Math.min(1f, accumulator / stepTime);
+    }
+
+    public int getDroppedSteps() {
+        return droppedSteps;
+    }
+}
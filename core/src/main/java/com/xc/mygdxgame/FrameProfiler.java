@@ -0,0 +1,137 @@
+package com.xc.mygdxgame;
+
+import com.badlogic.gdx.utils.TimeUtils;
+
+// Per-phase CPU timings with a rolling history, for the performance overlay.
+// Phases may nest; time spent in a nested phase is only charged to the inner
+// one. Time outside every phase is only in the frame's CPU total; RENDER
+// covers drawing the current screen, everything after the background.
+// Does nothing while disabled, so the hooks can stay in place.
+public final class FrameProfiler {
+    public enum Phase {
+        INPUT,
+        PLANE,
+        BULLETS,
+        MONSTERS,
+        COINS,
+        COLLISIONS,
+        BACKGROUND,
+        RENDER
+    }
+
+    public static final int HISTORY = 120;  // Frames kept for graphs and averages
+
+    private static final int PHASES = Phase.values().length;
+
+    private boolean enabled;
+
+    // Current frame
+    private final long[] phaseNanos = new long[PHASES];
+    private final int[] stack = new int[16];
+    private int depth;
+    private long mark;
+    private long frameStart;
+
+    // History in milliseconds, newest at head
+    private final float[] frameTimes = new float[HISTORY];
+    private final float[] cpuTimes = new float[HISTORY];
+    private final float[][] phaseTimes = new float[PHASES][HISTORY];
+    private int head = HISTORY - 1;
+    private int frames;
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+        depth = 0;
+        frames = 0;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void beginFrame() {
+        if (!enabled) return;
+        for (int i = 0; i < PHASES; i++) {
+            phaseNanos[i] = 0;
+        }
+        depth = 0;
+        frameStart = TimeUtils.nanoTime();
+    }
+
+    public void begin(Phase phase) {
+        if (!enabled || depth == stack.length) return;
+        long now = TimeUtils.nanoTime();
+        if (depth > 0) phaseNanos[stack[depth - 1]] += now - mark;
+        stack[depth++] = phase.ordinal();
+        mark = now;
+    }
+
+    public void end(Phase phase) {
+        if (!enabled || depth == 0 || stack[depth - 1] != phase.ordinal()) return;
+        long now = TimeUtils.nanoTime();
+        phaseNanos[phase.ordinal()] += now - mark;
+        depth--;
+        mark = now;
+    }
+
+    // Record the frame; deltaTime is the time since the previous frame
+    public void endFrame(float deltaTime) {
+        if (!enabled) return;
+        head = (head + 1) % HISTORY;
+        frameTimes[head] = deltaTime * 1000f;
+        cpuTimes[head] = (TimeUtils.nanoTime() - frameStart) / 1000000f;
+        for (int i = 0; i < PHASES; i++) {
+            phaseTimes[i][head] = phaseNanos[i] / 1000000f;
+        }
+        if (frames < HISTORY) frames++;
+    }
+
+    // Number of frames in the history
+    public int getFrames() {
+        return frames;
+    }
+
+    // Frame interval in ms, age 0 is the latest frame
+    public float getFrameTime(int age) {
+        return frameTimes[index(age)];
+    }
+
+    // CPU time spent between beginFrame and endFrame in ms
+    public float getCpuTime(int age) {
+        return cpuTimes[index(age)];
+    }
+
+    public float getAverage(Phase phase) {
+        return average(phaseTimes[phase.ordinal()]);
+    }
+
+    public float getMax(Phase phase) {
+        float[] times = phaseTimes[phase.ordinal()];
+        float max = 0;
+        for (int age = 0; age < frames; age++) {
+            max = Math.max(max, times[index(age)]);
+        }
+        return max;
+    }
+
+    public float getAverageFrameTime() {
+        return average(frameTimes);
+    }
+
+    public float getAverageCpuTime() {
+        return average(cpuTimes);
+    }
+
+    private float average(float[] times) {
+        if (frames == 0) return 0;
+        float sum = 0;
+        for (int age = 0; age < frames; age++) {
+            sum += times[index(age)];
+        }
+        return sum / frames;
+    }
+
+    private int index(int age) {
+        return (head - age + HISTORY) % HISTORY;
+    }
+}
@@ -0,0 +1,125 @@
+package com.xc.mygdxgame;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.graphics.glutils.FrameBuffer;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.viewport.Viewport;
+
+// Draws the frame into an offscreen buffer no larger than the internal
+// resolution needs and scales it up to the screen, so fill rate stops growing
+// with the display. The camera is unchanged, only the pixels behind it are
+// fewer, so world coordinates and input are not affected. Screens that are
+// not larger than the internal resolution are drawn to directly.
+public final class FrameScaler implements Disposable {
+    private int internalWidth;
+    private int internalHeight;
+    private Texture.TextureFilter filter = Texture.TextureFilter.Linear;
+    private float renderScale = 1f;
+
+    private FrameBuffer frameBuffer;
+    private final TextureRegion region = new TextureRegion();
+    private final Matrix4 screenProjection = new Matrix4().setToOrtho2D(0, 0, 1, 1);
+    private boolean active;
+    private boolean unavailable;  // Creating a buffer failed, draw to the screen
+
+    // Smallest buffer that still has this many pixels across and down; the
+    // screen's aspect ratio is kept. 0 draws at the screen's resolution
+    public void setInternalResolution(int width, int height) {
+        internalWidth = Math.max(0, width);
+        internalHeight = Math.max(0, height);
+    }
+
+    public void setFilter(Texture.TextureFilter filter) {
+        this.filter = filter;
+    }
+
+    // Fraction of the internal resolution, or of the screen's when there is
+    // none, to draw at. Lowered by the quality controller
+    public void setRenderScale(float renderScale) {
+        this.renderScale = Math.max(0.1f, Math.min(1f, renderScale));
+    }
+
+    public float getRenderScale() {
+        return renderScale;
+    }
+
+    // Bind the target for this frame and clear it. Call before the frame's
+    // batch pass
+    public void begin(Viewport viewport) {
+        int screenWidth = viewport.getScreenWidth();
+        int screenHeight = viewport.getScreenHeight();
+        float scale = 1f;
+        if (internalWidth > 0 && internalHeight > 0 && screenWidth > 0 && screenHeight > 0) {
+            scale = Math.min(1f, Math.max((float)internalWidth / screenWidth, (float)internalHeight / screenHeight));
+        }
+        scale *= renderScale;
+        active = scale < 1f && !unavailable && ensureBuffer(Math.round(screenWidth * scale), Math.round(screenHeight * scale));
+        
+        // The screen too, the buffer only covers the viewport, not letterbox bars
+        Gdx.gl.glClearColor(0, 0, 0, 1);
+        Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
+        if (active) {
+            frameBuffer.begin();
+            Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
+        }
+    }
+
+    // Scale the buffer up over the viewport's screen area. Call after the
+    // frame's batch pass; the batch must not be drawing
+    public void end(SpriteBatch batch, Viewport viewport) {
+        if (!active) return;
+        frameBuffer.end(viewport.getScreenX(), viewport.getScreenY(),
+            viewport.getScreenWidth(), viewport.getScreenHeight());
+        batch.setProjectionMatrix(screenProjection);
+        batch.setPackedColor(Color.WHITE_FLOAT_BITS);
+        batch.disableBlending();
+        batch.begin();
+        batch.draw(region, 0, 0, 1, 1);
+        batch.end();
+        batch.enableBlending();
+        batch.setProjectionMatrix(viewport.getCamera().combined);
+    }
+
+    // Whether the last frame went through the buffer
+    public boolean isActive() {
+        return active;
+    }
+
+    private boolean ensureBuffer(int width, int height) {
+        width = Math.max(1, width);
+        height = Math.max(1, height);
+        if (frameBuffer == null || frameBuffer.getWidth() != width || frameBuffer.getHeight() != height) {
+            if (frameBuffer != null) frameBuffer.dispose();
+            frameBuffer = null;
+            try {
+                frameBuffer = new FrameBuffer(Pixmap.Format.RGB888, width, height, false);
+            } catch (Exception e) {
+                // Draw at the screen's resolution from now on
+                System.err.println("Error creating " + width + "x" + height + " frame buffer: " + e.getMessage());
+                e.printStackTrace();
+                unavailable = true;
+                return false;
+            }
+            // Frame buffer textures are upside down
+            region.setRegion(frameBuffer.getColorBufferTexture());
+            region.flip(false, true);
+        }
+        frameBuffer.getColorBufferTexture().setFilter(filter, filter);
+        return true;
+    }
+
+    @Override
+    public void dispose() {
+        if (frameBuffer != null) {
+            frameBuffer.dispose();
+            frameBuffer = null;
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.xc.mygdxgame;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.assets.AssetDescriptor;
+import com.badlogic.gdx.assets.AssetErrorListener;
+import com.badlogic.gdx.assets.AssetLoaderParameters;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.ObjectSet;
+import com.badlogic.gdx.utils.TimeUtils;
+
+// Streams assets in through an AssetManager a few milliseconds per frame.
+// Assets are queued in groups; groups load in order, so the menu can show as
+// soon as MENU is done while the rest keeps loading behind it.
+public final class GameAssets implements Disposable {
+    public enum Group {
+        MENU,
+        SHOP,
+        GAMEPLAY,
+        BOSS
+    }
+
+    private final AssetManager manager = new AssetManager();
+    private final Array<Array<AssetDescriptor<?>>> groups = new Array<Array<AssetDescriptor<?>>>();
+    private final ObjectSet<String> failed = new ObjectSet<String>();
+    private final Array<AssetDescriptor<?>> released = new Array<AssetDescriptor<?>>();
+    private final long startTime = TimeUtils.nanoTime();
+
+    // Groups before this one are fully loaded; those before reported are known to the caller
+    private int loadedGroups;
+    private int reportedGroups;
+
+    public GameAssets() {
+        for (int i = 0; i < Group.values().length; i++) {
+            groups.add(new Array<AssetDescriptor<?>>());
+        }
+        manager.setErrorListener(new AssetErrorListener() {
+            @Override
+            public void error(AssetDescriptor asset, Throwable throwable) {
+                // Keep loading the rest, callers null check what is missing
+                System.err.println("Error loading " + asset.fileName + ": " + throwable.getMessage());
+                failed.add(asset.fileName);
+            }
+        });
+    }
+
+    public <T> void queue(Group group, String fileName, Class<T> type) {
+        queue(group, fileName, type, null);
+    }
+
+    public <T> void queue(Group group, String fileName, Class<T> type, AssetLoaderParameters<T> parameters) {
+        AssetDescriptor<T> descriptor = new AssetDescriptor<T>(fileName, type, parameters);
+        groups.get(group.ordinal()).add(descriptor);
+        manager.load(descriptor);
+    }
+
+    // Load for up to millis milliseconds; decoding runs on the manager's thread,
+    // GL uploads happen here
+    public void update(int millis) {
+        if (loadedGroups == groups.size) return;
+        manager.update(millis);
+        while (loadedGroups < groups.size && isGroupDone(groups.get(loadedGroups))) {
+            Gdx.app.log("Assets", Group.values()[loadedGroups] + " loaded after " + getElapsedMillis() + " ms");
+            loadedGroups++;
+        }
+    }
+
+    private boolean isGroupDone(Array<AssetDescriptor<?>> group) {
+        for (AssetDescriptor<?> descriptor : group) {
+            if (!manager.isLoaded(descriptor.fileName, descriptor.type) && !failed.contains(descriptor.fileName)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Next group that finished loading since the last call, or null
+    public Group pollLoaded() {
+        return reportedGroups < loadedGroups ? Group.values()[reportedGroups++] : null;
+    }
+
+    // True once this group and every group before it are loaded
+    public boolean isLoaded(Group group) {
+        return group.ordinal() < loadedGroups;
+    }
+
+    // True once every queued group is loaded
+    public boolean isFinished() {
+        return loadedGroups == groups.size;
+    }
+
+    // Fraction of the assets up to and including group that are loaded
+    public float getProgress(Group group) {
+        int total = 0, done = 0;
+        for (int i = 0; i <= group.ordinal(); i++) {
+            for (AssetDescriptor<?> descriptor : groups.get(i)) {
+                total++;
+                if (manager.isLoaded(descriptor.fileName, descriptor.type) || failed.contains(descriptor.fileName)) {
+                    done++;
+                }
+            }
+        }
+        return total == 0 ? 1f : done / (float)total;
+    }
+
+    // Loaded asset, or null if it failed or is not loaded yet
+    public <T> T get(String fileName, Class<T> type) {
+        return manager.isLoaded(fileName, type) ? manager.get(fileName, type) : null;
+    }
+
+    // Unload the standalone textures, i.e. the backgrounds, to give their
+    // memory back while the game is in the background. Only once everything
+    // is loaded, so streaming is not disturbed; reloadTextures() undoes it
+    public void releaseTextures() {
+        if (!isFinished() || released.size > 0) return;
+        for (Array<AssetDescriptor<?>> group : groups) {
+            for (AssetDescriptor<?> descriptor : group) {
+                if (descriptor.type == Texture.class && manager.isLoaded(descriptor.fileName, descriptor.type)) {
+                    manager.unload(descriptor.fileName);
+                    released.add(descriptor);
+                }
+            }
+        }
+        Gdx.app.log("Assets", "Released " + released.size + " textures");
+    }
+
+    public boolean hasReleasedTextures() {
+        return released.size > 0;
+    }
+
+    // Load the released textures again, blocking. Returns false if nothing
+    // was released; otherwise earlier get() results are disposed and have to
+    // be fetched again
+    public boolean reloadTextures() {
+        if (released.size == 0) return false;
+        long start = TimeUtils.nanoTime();
+        for (AssetDescriptor<?> descriptor : released) {
+            manager.load(descriptor);
+        }
+        manager.finishLoading();
+        Gdx.app.log("Assets", "Reloaded " + released.size + " textures in "
+            + TimeUtils.nanosToMillis(TimeUtils.timeSinceNanos(start)) + " ms");
+        released.clear();
+        return true;
+    }
+
+    // Time since the assets were created, i.e. since startup
+    public long getElapsedMillis() {
+        return TimeUtils.nanosToMillis(TimeUtils.timeSinceNanos(startTime));
+    }
+
+    @Override
+    public void dispose() {
+        manager.dispose();
+    }
+}
@@ -0,0 +1,98 @@
+package com.xc.mygdxgame;
+
+// What happened during world steps, for the side effects that do not change
+// the simulation: sound, scoring, saving and visual effects. The world pushes
+// events into a preallocated ring buffer while it steps, and the game takes
+// them out in one batch after the steps, where repeats can be merged. When
+// the buffer is full new events are dropped and counted, never allocated.
+// Shots and hits come in bursts, so they may only fill part of the buffer and
+// the rest is kept for the rarer events. Nothing the game keeps, like coins
+// or score, is taken from events; World holds those.
+public final class GameEvents {
+    public enum Type {
+        SHOT(true),             // Player or boss fired; x, y is the shooter
+        HIT(true),              // A bullet hit a monster, the boss or the player
+        KILL(false),            // Monster killed; value is the score after it
+        PLAYER_DAMAGED(false),  // Player lost a life; value is the lives left
+        COIN_COLLECTED(false),  // Value is the level's coin count after it
+        BOSS_DEFEATED(false);   // Value is the score after the reward
+
+        final boolean frequent;
+
+        Type(boolean frequent) {
+            this.frequent = frequent;
+        }
+    }
+
+    private final Type[] types;
+    private final int[] values;
+    private final float[] x;
+    private final float[] y;
+    private final int mask;
+    private final int frequentLimit;  // Size up to which frequent events are taken
+    private int head;  // Oldest event
+    private int size;
+    private int dropped;
+
+    // capacity is rounded up to a power of two
+    public GameEvents(int capacity) {
+        int length = Integer.highestOneBit(Math.max(1, capacity - 1)) << 1;
+        types = new Type[length];
+        values = new int[length];
+        x = new float[length];
+        y = new float[length];
+        mask = length - 1;
+        frequentLimit = length - length / 4;
+    }
+
+    public void push(Type type, int value, float x, float y) {
+        if (size == (type.frequent ? frequentLimit : types.length)) {
+            dropped++;
+            return;
+        }
+        int i = (head + size) & mask;
+        types[i] = type;
+        values[i] = value;
+        this.x[i] = x;
+        this.y[i] = y;
+        size++;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // Accessors for the event index places after the oldest
+    public Type getType(int index) {
+        return types[(head + index) & mask];
+    }
+
+    public int getValue(int index) {
+        return values[(head + index) & mask];
+    }
+
+    public float getX(int index) {
+        return x[(head + index) & mask];
+    }
+
+    public float getY(int index) {
+        return y[(head + index) & mask];
+    }
+
+    // Remove the count oldest events once they are handled
+    public void removeFirst(int count) {
+        count = Math.min(count, size);
+        head = (head + count) & mask;
+        size -= count;
+    }
+
+    public void clear() {
+        head = 0;
+        size = 0;
+    }
+
+    // Events lost to a full buffer since the start
+    public int getDropped() {
+        return dropped;
+    }
+}
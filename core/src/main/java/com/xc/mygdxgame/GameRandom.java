@@ -0,0 +1,38 @@
+package com.xc.mygdxgame;
+
+import com.badlogic.gdx.math.RandomXS128;
+
+// Seeded random streams for the simulation, one per subsystem, so an extra
+// draw in one of them (a new spawn pattern, a different boss path) does not
+// shift what the others produce. Every stream is derived from a single seed,
+// which is all a replay has to store.
+public final class GameRandom {
+    final RandomXS128 spawn = new RandomXS128();  // Where and what monsters spawn
+    final RandomXS128 ai = new RandomXS128();     // Monster shooting timers
+    final RandomXS128 boss = new RandomXS128();   // Boss movement
+    private long seed;
+
+    public GameRandom(long seed) {
+        setSeed(seed);
+    }
+
+    // Restart every stream from seed
+    public void setSeed(long seed) {
+        this.seed = seed;
+        spawn.setSeed(mix(seed, 1));
+        ai.setSeed(mix(seed, 2));
+        boss.setSeed(mix(seed, 3));
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    // SplitMix64 finalizer, gives each stream an unrelated seed
+    private static long mix(long seed, int stream) {
+        long z = seed + stream * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
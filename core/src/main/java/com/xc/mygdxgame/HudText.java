@@ -0,0 +1,89 @@
+package com.xc.mygdxgame;
+
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.GlyphLayout;
+import com.badlogic.gdx.utils.Array;
+
+// Text for the HUD and menus without per-frame garbage. Numbers go into
+// reusable StringBuilders that are only rebuilt when the value changes, and
+// the layouts of fixed labels are measured once per font and scale.
+// Layouts are for measuring; draw the text itself so the font's current
+// color applies.
+public final class HudText {
+    // A number with fixed text around it, e.g. "Coins: 120"
+    public static final class Counter {
+        private final String prefix;
+        private final String suffix;
+        private final StringBuilder text = new StringBuilder();
+        private final GlyphLayout layout = new GlyphLayout();
+        private int value;
+        private boolean built;
+
+        // Font and scale the layout was measured with, null if it is stale
+        private BitmapFont layoutFont;
+        private float layoutScale;
+
+        public Counter(String prefix) {
+            this(prefix, "");
+        }
+
+        public Counter(String prefix, String suffix) {
+            this.prefix = prefix;
+            this.suffix = suffix;
+        }
+
+        public Counter set(int value) {
+            if (!built || value != this.value) {
+                this.value = value;
+                built = true;
+                text.setLength(0);
+                text.append(prefix).append(value).append(suffix);
+                layoutFont = null;
+            }
+            return this;
+        }
+
+        public StringBuilder text() {
+            return text;
+        }
+
+        public GlyphLayout layout(BitmapFont font) {
+            float scale = font.getData().scaleX;
+            if (layoutFont != font || layoutScale != scale) {
+                layout.setText(font, text);
+                layoutFont = font;
+                layoutScale = scale;
+            }
+            return layout;
+        }
+    }
+
+    private static final class Label {
+        BitmapFont font;
+        float scale;
+        String text;
+        final GlyphLayout layout = new GlyphLayout();
+    }
+
+    private final Array<Label> labels = new Array<Label>();
+
+    // Layout of text that never changes, measured the first time it is asked
+    // for with this font and scale. There are a few dozen labels, a linear
+    // search is cheaper than building a key
+    public GlyphLayout label(BitmapFont font, String text) {
+        float scale = font.getData().scaleX;
+        for (int i = 0; i < labels.size; i++) {
+            Label label = labels.get(i);
+            if (label.font == font && label.scale == scale && label.text.equals(text)) {
+                return label.layout;
+            }
+        }
+        Label label = new Label();
+        label.font = font;
+        label.scale = scale;
+        label.text = text;
+        label.layout.setText(font, text);
+        labels.add(label);
+        return label.layout;
+    }
+}
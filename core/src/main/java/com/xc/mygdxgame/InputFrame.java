@@ -0,0 +1,24 @@
+package com.xc.mygdxgame;
+
+// Snapshot of the player controls for one simulation step.
+// Main fills it from Gdx.input, headless runs fill it from a script.
+public final class InputFrame {
+    public boolean up;
+    public boolean down;
+    public boolean left;
+    public boolean right;
+    public boolean fire;
+
+    public InputFrame set(boolean up, boolean down, boolean left, boolean right, boolean fire) {
+        this.up = up;
+        this.down = down;
+        this.left = left;
+        this.right = right;
+        this.fire = fire;
+        return this;
+    }
+
+    public InputFrame clear() {
+        return set(false, false, false, false, false);
+    }
+}
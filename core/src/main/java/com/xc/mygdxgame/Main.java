@@ -7,25 +7,31 @@ import com.badlogic.gdx.graphics.GL20;
 import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.assets.loaders.TextureLoader;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.utils.ScreenUtils;
-import com.badlogic.gdx.utils.viewport.ExtendViewport;
+import com.badlogic.gdx.utils.TimeUtils;
+import com.badlogic.gdx.utils.viewport.FitViewport;
 import com.badlogic.gdx.utils.viewport.Viewport;
-import com.badlogic.gdx.Preferences;
+import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.math.Vector3;
 import com.badlogic.gdx.math.Rectangle;
 import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Timer;
 import com.badlogic.gdx.audio.Sound;
-import java.util.Random;
+import java.io.File;
+import java.io.OutputStream;
+import com.badlogic.gdx.utils.StreamUtils;
+import com.badlogic.gdx.math.RandomXS128;
 import com.badlogic.gdx.graphics.g2d.GlyphLayout;
-import com.badlogic.gdx.audio.Music;
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.Pixmap;
-import com.badlogic.gdx.math.MathUtils;
 
 // Game state enumeration
 enum GameState {
+    LOADING,     // Waiting for an asset group, then switches to stateAfterLoading
         MENU,
         PLAYING,
     PAUSED,
@@ -37,172 +43,16 @@ enum GameState {
     GAME_OVER    // New game over state
 }
 
-// Difficulty enumeration
-enum Difficulty {
-        EASY,
-        NORMAL,
-        HARD,
-    COMPLETE
-}
-
 // Screen mode enumeration
 enum ScreenMode {
     WINDOWED,
     FULLSCREEN
 }
 
-// Monster type enumeration
-enum MonsterType {
-    NORMAL(0xFF0000),    // Red
-    FAST(0x00FF00),      // Green
-    TOUGH(0x0000FF);     // Blue
-
-    private final int color;
-    
-    MonsterType(int color) {
-        this.color = color;
-    }
-    
-    public int getColor() {
-        return color;
-    }
-}
-
-// Difficulty settings class
-class DifficultySettings {
-    float duckSpeed;         // Duck movement speed
-    float duckVerticalSpeed; // Duck vertical movement speed
-    int duckCount;          // Number of ducks
-    float shootInterval;     // Shooting interval
-    float waterPower;       // Water gun power
-    
-    public DifficultySettings(float speed, float vSpeed, int count, float interval, float power) {
-        this.duckSpeed = speed;
-        this.duckVerticalSpeed = vSpeed;
-        this.duckCount = count;
-        this.shootInterval = interval;
-        this.waterPower = power;
-    }
-}
-
-// Monster class
-class Monster {
-    float x;
-    float y;
-    boolean active;
-    float shootTimer;
-    float shootInterval;
-    MonsterType type;
-    int health = 3;  // Add health attribute, initial value is 3
-    
-    public Monster(float x, float y, MonsterType type) {
-        this.x = x;
-        this.y = y;
-        this.active = true;
-        this.shootTimer = (float)(Math.random() * 2.0f);  // Random initial shooting time
-        this.shootInterval = 1.5f + (float)(Math.random() * 1.5f);  // Random shooting interval 1.5-3 seconds
-        this.type = type;
-        this.health = 3;  // Initialize health
-    }
-}
-
-// Bullet class
-class Bullet {
-    float x;
-    float y;
-    float velocityX;
-    float velocityY;
-    boolean isEnemy;
-    boolean canBlockEnemyBullets;
-    
-    public Bullet(float x, float y, boolean isEnemy) {
-        this.x = x;
-        this.y = y;
-        this.isEnemy = isEnemy;
-        this.canBlockEnemyBullets = false;
-        // Default speed
-        this.velocityX = isEnemy ? -400 : 400;
-        this.velocityY = 0;
-    }
-}
-
-// Star class
-class Star {
-    float x;
-    float y;
-    float size;
-    float brightness;
-    
-    public Star() {
-        this.x = (float) Math.random() * 800;
-        this.y = (float) Math.random() * 600;
-        this.size = 1 + (float) Math.random() * 2;
-        this.brightness = 0.5f + (float) Math.random() * 0.5f;
-    }
-}
-
-// Water gun type enumeration
-enum WaterGunType {
-    BASIC(0, "Basic Water Gun", 0),
-    WATER_GUN_2(1, "Super Soaker", 100),    // Changed from 1000 to 100
-    WATER_GUN_3(2, "Hydro Cannon", 200),    // Changed from 2000 to 200
-    WATER_GUN_4(3, "Ultimate Blaster", 300); // Changed from 3000 to 300
-
-    private final int id;
-    private final String name;
-    private final int price;
-    private int level = 1;
-    private static final int MAX_LEVEL = 3;
-
-    WaterGunType(int id, String name, int price) {
-        this.id = id;
-        this.name = name;
-        this.price = price;
-    }
-
-    public int getId() { return id; }
-    public String getName() { return name; }
-    public int getPrice() { return price; }
-    public int getLevel() { return level; }
-    
-    // Modify upgrade price calculation method
-    public int getUpgradePrice() {
-        // First upgrade costs 10 coins
-        // Second upgrade costs 20 coins
-        // Third upgrade costs 30 coins
-        return level * 10;
-    }
-    
-    public boolean canUpgrade() {
-        return level < MAX_LEVEL;
-    }
-    
-    public void upgrade() {
-        if (level < MAX_LEVEL) {
-            level++;
-        }
-    }
-}
-
-// Coin class
-class Coin {
-    float x;
-    float y;
-    float velocityY;
-    boolean active;
-    
-    public Coin(float x, float y) {
-        this.x = x;
-        this.y = y;
-        this.velocityY = 0; // Default no falling
-        this.active = true;
-    }
-}
-
 public class Main extends ApplicationAdapter {
     // World size constants
-    private static final float MIN_WORLD_WIDTH = 1280f;  // Increased game window width
-    private static final float MIN_WORLD_HEIGHT = 720f;  // Increased game window height
+    private static final float WORLD_WIDTH = 1280f;  // Gameplay coordinates, whatever the window size
+    private static final float WORLD_HEIGHT = 720f;
     
     // Screen mode related variables
     private ScreenMode currentScreenMode = ScreenMode.WINDOWED;
@@ -221,38 +71,46 @@ public class Main extends ApplicationAdapter {
     
     // Game related constants
     private static final String PREF_HIGH_SCORE = "highScore";
-    private static final float PLANE_SPEED = 500f;  // Increased from 300f to 500f
+    private static final String PREF_INTERNAL_WIDTH = "internalWidth";    // 0 renders at the screen's resolution
+    private static final String PREF_INTERNAL_HEIGHT = "internalHeight";
+    private static final String PREF_INTERNAL_FILTER = "internalFilter";  // "linear" or "nearest"
+    private static final String PREF_RELEASE_TEXTURES = "releaseTexturesWhenPaused";  // Backgrounds, reloaded on resume
+    private static final String PREF_REPLAY_CHECKSUMS = "replayChecksumInterval";  // Ticks between replay checksums, 0 for none
+
+    // Render queue layers of the game screen, bottom to top
+    private static final int LAYER_COINS = 0;
+    private static final int LAYER_ENEMIES = 1;
+    private static final int LAYER_BOSS_BAR = 2;
+    private static final int LAYER_BULLETS = 3;
+    private static final int LAYER_PLAYER = 4;
+    private static final int LAYER_HUD = 5;
+    private static final String REPLAY_FILE = "replays/last.replay";  // Checked with benchmarks:verifyReplay
     private static final float BULLET_SPEED = 300f;
-    private static float MONSTER_SPEED = 150f;
-    private static float MONSTER_VERTICAL_SPEED = 100f;
-    private static int MONSTER_COUNT = 6;
-    private static float SHOOT_INTERVAL = 0.5f;
-    private static final int STAR_COUNT = 100;
+    private static final int STAR_COUNT = 2000;
+    private static final int REDUCED_STAR_COUNT = 500;
+    private static final float TARGET_FPS = 60f;  // Frame budget the quality controller holds
+    private static final int MAX_SOUND_VOICES = 12;  // OpenAL has 16 sources by default, music needs some
+    private static final String MENU_MUSIC = "menu_music2.mp3";  // Lighthearted water park style
+    private static final String GAME_MUSIC = "game_music.mp3";   // Lively summer theme
+    private static final String BOSS_MUSIC = "boss_music.mp3";   // Tense and exciting
+    private static final float MENU_MUSIC_VOLUME = 1.0f;
+    private static final float GAME_MUSIC_VOLUME = 0.5f;
+    private static final float BOSS_MUSIC_VOLUME = 0.5f;
     private static final float BOSS_SHOOT_INTERVAL = 1.5f;
     private static final float RESTART_DELAY = 2.0f;
+    private static final float HIT_EFFECT_DURATION = 0.3f;  // Flash effect duration
+    private static final float SHAKE_DURATION = 0.3f;
+    private static final float SHAKE_INTENSITY = 5.0f;
     private static final float COMPLETE_DISPLAY_TIME = 3.0f;
-    private static final int POINTS_PER_KILL = 100;
-    private static final float SPAWN_INTERVAL = 3.0f;
-    
-    // Set plane display size
-    private static final float PLANE_WIDTH = 48f;
-    private static final float PLANE_HEIGHT = 48f;
     
-    // Set bullet size
-    private static final float BULLET_WIDTH = 24f;  // Decreased bullet width
-    private static final float BULLET_HEIGHT = 12f;  // Decreased bullet height
-    
-    // Set enemy display size
-    private static final float MONSTER_WIDTH = 48f;
-    private static final float MONSTER_HEIGHT = 48f;
+    // Simulation step settings
+    private static final int TICKS_PER_SECOND = 60;
+    private static final int ASSET_LOAD_MILLIS = 8;  // Per frame loading budget, keeps the loading screen smooth
+    private static final int MAX_STEPS_PER_FRAME = 5;  // Catch-up limit after a slow frame
     
     // Set death animation size
     private static final float DEAD_WIDTH = 48f;
     private static final float DEAD_HEIGHT = 48f;
-
-    // Set Boss size
-    private static final float BOSS_WIDTH = 96f;
-    private static final float BOSS_HEIGHT = 96f;
     
     // Boss bullet size
     private static final float BOSS_BULLET_WIDTH = 24f;
@@ -263,87 +121,75 @@ public class Main extends ApplicationAdapter {
     private Rectangle backToMainButton;
     private Rectangle inGameQuitButton;
 
-    // Health system
-    private int lives = 3;  // Initial 3 lives
-    private static final int MAX_LIVES = 5;  // Maximum health limit
-
-    // Add new variables to control invincibility time and blinking effect
-    private float invincibleTimer = 0;
-    private static final float INVINCIBLE_DURATION = 2f; // Invincibility time 2 seconds
-    private boolean isInvincible = false;
-    
-    // Hit effect variables
-    private float hitEffectTimer = 0;
-    private static final float HIT_EFFECT_DURATION = 0.3f; // Flash effect duration
-    private boolean showHitEffect = false;
-    private float shakeTimer = 0;
-    private static final float SHAKE_DURATION = 0.3f;
-    private static final float SHAKE_INTENSITY = 5.0f;
-    private float shakeOffsetX = 0;
-    private float shakeOffsetY = 0;
-
     // Keep these declarations
-    private Texture bulletTexture;    // Plane bullet texture
-    private Texture bullet2Texture;   // Enemy bullet texture
+    private TextureRegion bulletRegion;    // Plane bullet texture
+    private TextureRegion bullet2Region;   // Enemy bullet texture
 
     // Game related variables
-    private Random random;
+    private final RandomXS128 seeds = new RandomXS128();  // One seed per level, the only unseeded source
     private Viewport viewport;
     private TextureRegion deadRegion;
-    private Rectangle planeRect;
-    private Rectangle monsterRect;
-    private Rectangle bulletRect;
     private BitmapFont font;
     private BitmapFont titleFont;  // Font for title in large size
 
     // New variable
     private SpriteBatch batch;
     private Texture backgroundTexture;
-    private Texture planeTexture;
-    private Texture monsterTexture;
-    private Texture deadTexture;
-    private Texture bossTexture;
-    private Texture bossShootTexture;
-    private float planeX;
-    private float planeY;
-    private boolean isGameOver;
+    private TextureAtlas spriteAtlas;  // All sprites, packed by the core:packTextures task
+    private Texture whiteTexture;      // Loading bar, and stands in for the atlas if it failed to load
+    private GameAssets assets;
+    private GameState stateAfterLoading;
+    private GameAssets.Group loadingGroup;
+    private boolean firstInteractiveReported;
+    private final FrameProfiler profiler = new FrameProfiler();
+    private PerfOverlay perfOverlay;
+    private TextureRegion planeRegion;
+    private TextureRegion monsterRegion;
+    private World world;
+    private final InputFrame inputFrame = new InputFrame();
+    private final RenderQueue renderQueue = new RenderQueue(1024);  // Game screen sprites, sorted before drawing
+    private final FrameScaler frameScaler = new FrameScaler();  // Caps the resolution frames are drawn at
+    private final QualityController quality = new QualityController(TARGET_FPS);
+    private final AudioDispatcher audio = new AudioDispatcher(MAX_SOUND_VOICES);  // Sound effects, played once per frame
+    // Voice limit, priority and length in seconds of each sound effect. One
+    // handle per Sound, or a shared Sound would get each handle's voice limit
+    private final int shotSound = audio.register(4, 0, 0.55f);
+    private final int hitSound = audio.register(4, 2, 1.25f);
+    private final int powerupSound = audio.register(3, 3, 0.55f);  // Coins, boss defeated and purchases
+    private boolean idleRendering;  // Static screen, frames are only drawn on input or a timer
+    private boolean suspended;  // Minimized or in the background, between pause() and resume()
+    private boolean releaseTexturesWhenPaused;
+    private int replayChecksumInterval;
+    private final MusicController music = new MusicController();  // Opens each track's stream when it starts
+    private final Timer.Task wakeTask = new Timer.Task() {
+        @Override
+        public void run() {
+            Gdx.graphics.requestRendering();
+        }
+    };
+    private final Replay replay = new Replay();  // Recording of the current level, saved when it ends
+    private final FixedStepLoop stepLoop = new FixedStepLoop(TICKS_PER_SECOND, MAX_STEPS_PER_FRAME);
+    private float renderAlpha = 1f;  // Interpolation between the last two world steps
+    private float hitEffectTimer = HIT_EFFECT_DURATION;  // Red flash after the player is hit, done at the duration
+    private float shakeTimer = SHAKE_DURATION;
+    private float shakeOffsetX;
+    private float shakeOffsetY;
     private float gameOverTimer;
-    private boolean monstersMovingRight;
-    private boolean isBossActive;
-    private int bossHealth;
-    private int bossShootPattern;
-    private float bossX;
-    private float bossY;
-    private Array<Monster> monsters;
-    private Array<Bullet> bullets;
-    private Array<Star> stars;
-    private int currentScore;
+    private Starfield starfield;  // Drawn under the game screen
     private int highScore;
-    private Preferences prefs;
+    private SaveService prefs;
     private Sound shootSound;
-    private float shootTimer;
-    private float spawnTimer;
     private float completeTimer;
     private Rectangle startGameButton;
     private Rectangle difficultyButton;
     private Rectangle quitButton;
     private Difficulty currentDifficulty;
-    private String currentDifficultyText;
     private GameState gameState;
-    private DifficultySettings easySettings;
-    private DifficultySettings normalSettings;
-    private DifficultySettings hardSettings;
     private Texture menuBackground;
     private Texture level1Background;
     private Texture level2Background;
     private Texture level3Background;
     private Texture bossBackground;
-    private Music menuMusic;
-    private Music gameMusic;
-    private Music bossMusic;
-    private Sound waterShootSound;
-    private Sound duckHitSound;
-    private Sound powerupSound;
     private float gameTime = 0f;
 
     // Add level complete interface buttons
@@ -357,58 +203,62 @@ public class Main extends ApplicationAdapter {
     private Texture parkBackground;
     private Texture stormBackground;
 
-    // Add GlyphLayout to member variables
-    private GlyphLayout layout;
+    // Cached text, so drawing it creates no garbage
+    private final HudText hudText = new HudText();
+    private final HudText.Counter ducksText = new HudText.Counter("x ");
+    private final HudText.Counter coinsText = new HudText.Counter("x ");
+    private final HudText.Counter bossHealthText = new HudText.Counter("Boss HP: ");
+    private final HudText.Counter menuCoinsText = new HudText.Counter("Coins: ");
+    private final HudText.Counter shopCoinsText = new HudText.Counter("Your Coins: ");
+    private final HudText.Counter loadingText = new HudText.Counter("Loading... ", "%");
+    private final HudText.Counter killsText = new HudText.Counter("Ducks Shot: ");
+    private final HudText.Counter collectedText = new HudText.Counter("Coins Collected: ");
+    // One per gun, the shop and gun select draw all of them each frame
+    private final HudText.Counter[] shopPriceTexts = new HudText.Counter[WaterGunType.values().length];
+    private final HudText.Counter[] selectPriceTexts = new HudText.Counter[WaterGunType.values().length];
+    private final HudText.Counter[] upgradeTexts = new HudText.Counter[WaterGunType.values().length];
+    private final String[] windowSizeTexts = new String[windowedSizes.length / 2];
+    private static final String[] DIFFICULTY_TEXTS = {"Difficulty: EASY", "Difficulty: NORMAL", "Difficulty: HARD"};
+    private static final String[] LEVEL_COMPLETE_TEXTS = {"LEVEL EASY COMPLETE!", "LEVEL NORMAL COMPLETE!", "LEVEL HARD COMPLETE!"};
 
     // Shop related constants
-    private static final float COIN_WIDTH = 24f;  // Changed coin width from 48 to 24
-    private static final float COIN_HEIGHT = 24f; // Changed coin height from 48 to 24
     private static final float COIN_DROP_CHANCE = 1.0f; // 100% drop probability
     
     // Shop related variables
     private int totalCoins;
-    private int currentLevelCoins;  // Added current level coin count
-    private Array<Coin> coins;
-    private Texture coinTexture;
+    private TextureRegion coinRegion;
     private Array<WaterGunType> unlockedGuns;
     private WaterGunType currentGun;
     private Rectangle shopButton;
     private Rectangle[] gunButtons;
-    private Texture[] waterGunTextures;
+    private TextureRegion[] waterGunRegions;
     private Rectangle backFromShopButton;
 
     // Add new constants
-    private static final float BASE_BULLET_SPEED = 300f;  // Decreased base bullet speed
     private static final float SPEED_UPGRADE_MULTIPLIER = 0.15f;  // Increase speed by 15% per level
     private static final float BOSS_BULLET_SPEED = 400f; // Increased bullet speed
     private static final float BOSS_BULLET_SPREAD = 15f; // Bullet spread angle
-    private float bossShootTimer = 0;
-    private int bossAttackPattern = 0; // Used to switch attack patterns
-
-    // Add Boss movement related variables
-    private float bossTargetY;  // Boss's target Y coordinate
-    private float bossMoveCooldown;  // Boss movement cooldown time
-    private static final float BOSS_MOVE_INTERVAL = 2.0f;  // Interval for Boss to change target position
-    private static final float BOSS_SPEED = 200f;  // Boss movement speed
 
     // Add Boss texture variables
-    private Texture boss1Texture;
-    private Texture boss2Texture;
-    private Texture boss3Texture;
-
-    // Add needed variables
-    private float autoAttackTimer = 0;
-    private static final float AUTO_ATTACK_INTERVAL = 0.5f;
+    private TextureRegion boss1Region;
+    private TextureRegion boss2Region;
+    private TextureRegion boss3Region;
 
     // Add to member variables in Main class
     private boolean isStartingGame = false;
 
     // Add to member variables in the class
-    private int ducksKilled = 0;  // New: record number of ducks killed
-    private Texture monster2Texture; // New: duck icon texture
+    private TextureRegion monster2Region; // New: duck icon texture
 
     // Add to member variables in the class
-    private Texture livesTexture;
+    private TextureRegion livesRegion;
+
+    private final File saveFile;
+
+    // saveFile is where the backend keeps the save; the launcher knows the platform's layout
+    public Main(File saveFile) {
+        this.saveFile = saveFile;
+    }
 
     @Override
     public void create() {
@@ -420,51 +270,45 @@ public class Main extends ApplicationAdapter {
         
         // Initialize basic components
         batch = new SpriteBatch();
-        random = new Random();
-        viewport = new ExtendViewport(MIN_WORLD_WIDTH, MIN_WORLD_HEIGHT);
+        viewport = new FitViewport(WORLD_WIDTH, WORLD_HEIGHT);  // Letterboxed, gameplay never sees the window size
         
-        // Initialize game state and difficulty
-        gameState = GameState.MENU;
+        // Initialize game state and difficulty; the menu shows once its assets are in
+        gameState = GameState.LOADING;
+        stateAfterLoading = GameState.MENU;
+        loadingGroup = GameAssets.Group.MENU;
         currentDifficulty = Difficulty.EASY;
-        currentDifficultyText = "EASY";
+        
+        // Initialize gameplay simulation
+        world = new World(WORLD_WIDTH, WORLD_HEIGHT, new GameRandom(seeds.nextLong()));
+        world.setProfiler(profiler);
         
         // Initialize arrays
-        monsters = new Array<Monster>();
-        bullets = new Array<Bullet>();
-        stars = new Array<Star>();
-        coins = new Array<Coin>();
         unlockedGuns = new Array<WaterGunType>();
         
         // Initialize shop system
         initializeShopSystem();
-        
-        // Initialize stars
-        for (int i = 0; i < STAR_COUNT; i++) {
-            stars.add(new Star());
+        for (int i = 0; i < WaterGunType.values().length; i++) {
+            WaterGunType gun = WaterGunType.values()[i];
+            shopPriceTexts[i] = new HudText.Counter(gun.getName() + " - Price: ", " coins");
+            selectPriceTexts[i] = new HudText.Counter("Price: ", " coins");
+            upgradeTexts[i] = new HudText.Counter("Upgrade: ", " coins");
         }
         
-        // Initialize collision detection rectangles
-        planeRect = new Rectangle();
-        bulletRect = new Rectangle();
-        monsterRect = new Rectangle();
-        
-        // Initialize difficulty settings
-        initializeDifficulties();
+        // Initialize stars
+        starfield = new Starfield(STAR_COUNT);
         
         // Initialize buttons
         initializeButtons();
         
-        // Load resources
+        // Load resources; fonts are built in, everything else streams in from render()
         loadFonts();
-        loadTextures();
-        loadAudio();
-        loadBackgrounds();
-        
-        // Initialize GlyphLayout
-        layout = new GlyphLayout();
+        whiteTexture = createWhiteTexture();
+        perfOverlay = new PerfOverlay(profiler, world, renderQueue, audio, font, whiteTexture);
+        assets = new GameAssets();
+        queueAssets();
         
         // Initialize preferences for saving high score and coins
-        prefs = Gdx.app.getPreferences("SpaceGame");
+        prefs = new SaveService(saveFile);
         highScore = prefs.getInteger(PREF_HIGH_SCORE, 0);
         totalCoins = prefs.getInteger("totalCoins", 1000);
         totalCoins += 1000;
@@ -472,6 +316,16 @@ public class Main extends ApplicationAdapter {
         prefs.flush();
         loadUnlockedGuns();
         
+        // Draw at most at the world's design resolution unless configured otherwise
+        frameScaler.setInternalResolution(prefs.getInteger(PREF_INTERNAL_WIDTH, (int)WORLD_WIDTH),
+            prefs.getInteger(PREF_INTERNAL_HEIGHT, (int)WORLD_HEIGHT));
+        frameScaler.setFilter("nearest".equals(prefs.getString(PREF_INTERNAL_FILTER, "linear"))
+            ? Texture.TextureFilter.Nearest : Texture.TextureFilter.Linear);
+        releaseTexturesWhenPaused = prefs.getBoolean(PREF_RELEASE_TEXTURES, false);
+        // A checksum walks the whole world, once a simulated second is cheap
+        // enough to keep on and lets ReplayVerifier find where a replay diverges
+        replayChecksumInterval = prefs.getInteger(PREF_REPLAY_CHECKSUMS, TICKS_PER_SECOND);
+        
         // Initialize game objects
         resetGame();
         
@@ -479,7 +333,7 @@ public class Main extends ApplicationAdapter {
         for (WaterGunType gun : WaterGunType.values()) {
             if (isUnlocked(gun)) {
                 currentGun = gun;
-                planeTexture = waterGunTextures[gun.getId()];
+                planeRegion = waterGunRegions[gun.getId()];
                 break;
             }
         }
@@ -489,16 +343,16 @@ public class Main extends ApplicationAdapter {
         // Initialize shop buttons
         float buttonWidth = 150f;
         float buttonHeight = 50f;
-        shopButton = new Rectangle(MIN_WORLD_WIDTH - buttonWidth - 20, MIN_WORLD_HEIGHT - buttonHeight - 20, 
+        shopButton = new Rectangle(WORLD_WIDTH - buttonWidth - 20, WORLD_HEIGHT - buttonHeight - 20, 
                                  buttonWidth, buttonHeight);
         
         // Initialize water gun buttons in shop
         gunButtons = new Rectangle[WaterGunType.values().length];
-        float startY = MIN_WORLD_HEIGHT * 0.7f;
+        float startY = WORLD_HEIGHT * 0.7f;
         float spacing = 100f;
         for (int i = 0; i < gunButtons.length; i++) {
             gunButtons[i] = new Rectangle(
-                MIN_WORLD_WIDTH / 2f - 200f,
+                WORLD_WIDTH / 2f - 200f,
                 startY - i * spacing,
                 400f,
                 80f
@@ -506,14 +360,14 @@ public class Main extends ApplicationAdapter {
         }
         
         // Initialize return button
-        backFromShopButton = new Rectangle(20, MIN_WORLD_HEIGHT - 70, 150, 50);
+        backFromShopButton = new Rectangle(20, WORLD_HEIGHT - 70, 150, 50);
         
         // Default unlock basic water gun
         unlockedGuns.add(WaterGunType.BASIC);
         currentGun = WaterGunType.BASIC;
         
         // Initialize water gun texture array
-        waterGunTextures = new Texture[4];
+        waterGunRegions = new TextureRegion[4];
     }
 
     private void loadUnlockedGuns() {
@@ -545,205 +399,42 @@ public class Main extends ApplicationAdapter {
     
     private void resetGame() {
         // Initialize game state
-        isGameOver = false;
         gameOverTimer = 0;
-        monstersMovingRight = true;  // Reset enemy movement direction
-        
-        // Reset Boss related state
-        isBossActive = false;
-        bossHealth = 100;
-        bossShootTimer = 0;
-        bossShootPattern = 0;
-        
-        // Initialize plane position on screen left middle
-        planeX = PLANE_WIDTH;
-        planeY = MIN_WORLD_HEIGHT / 2f - PLANE_HEIGHT / 2f;
-        
-        // Clear existing enemies and bullets
-        monsters.clear();
-        bullets.clear();
-        coins.clear();  // Clear all coins
-        
-        // Generate new enemies
-        spawnMonsters();
-        
-        // Fully reset game only when these values are reset
-        currentLevelCoins = 0;  // Reset current level coin count
-        ducksKilled = 0;  // Reset kill count
-        currentScore = 0;  // Reset current score
-        lives = 3;  // Reset health
-        isInvincible = false;
-        invincibleTimer = 0;
-        
-        // Apply current difficulty settings
-        applyDifficultySettings();
-    }
-    
-    private void createBulletTexture() {
-        // Load plane bullet texture
-        bulletTexture = new Texture("bullet.png");
-        bulletTexture.setFilter(Texture.TextureFilter.Linear, Texture.TextureFilter.Linear);
         
-        // Load enemy bullet texture
-        bullet2Texture = new Texture("bullet2.png");
-        bullet2Texture.setFilter(Texture.TextureFilter.Linear, Texture.TextureFilter.Linear);
-    }
-    
-    private void spawnMonsters() {
-        monsters.clear();
-        
-        // Add default value handling
-        if (currentDifficulty == null) {
-            currentDifficulty = Difficulty.EASY;
-        }
-        
-        // Generate enemies based on difficulty settings
-        switch (currentDifficulty) {
-            case EASY:
-                // Easy mode: random position, slow movement
-        for (int i = 0; i < MONSTER_COUNT; i++) {
-                    float x = viewport.getWorldWidth() + random.nextFloat() * 200;
-                    float y = random.nextFloat() * (viewport.getWorldHeight() - MONSTER_HEIGHT);
-                    monsters.add(new Monster(x, y, MonsterType.NORMAL));
-                }
-                break;
-                
-            case NORMAL:
-                // Normal mode: two rows alternate
-                for (int i = 0; i < MONSTER_COUNT; i++) {
-                    float x = viewport.getWorldWidth() + (i % 2) * 100;
-                    float y = random.nextFloat() * (viewport.getWorldHeight() - MONSTER_HEIGHT);
-                    monsters.add(new Monster(x, y, MonsterType.FAST));
-                }
-                break;
-                
-            case HARD:
-                // Hard mode: three rows dense formation
-                for (int i = 0; i < MONSTER_COUNT; i++) {
-                    float x = viewport.getWorldWidth() + (i % 3) * 80;
-                    float y = random.nextFloat() * (viewport.getWorldHeight() - MONSTER_HEIGHT);
-                    monsters.add(new Monster(x, y, MonsterType.TOUGH));
-                }
-                break;
-            
-            default:
-                // Default use simple mode generation method
-                for (int i = 0; i < MONSTER_COUNT; i++) {
-                    float x = viewport.getWorldWidth() + random.nextFloat() * 200;
-                    float y = random.nextFloat() * (viewport.getWorldHeight() - MONSTER_HEIGHT);
-                    monsters.add(new Monster(x, y, MonsterType.NORMAL));
-                }
-                break;
-        }
+        // Apply current difficulty settings and gun, then start from scratch
+        applyDifficultySettings();
+        world.setGun(currentGun);
+        world.setSeed(seeds.nextLong());
+        world.reset();
+        stepLoop.reset();
+        renderAlpha = 1f;
+        resetEffects();
+        startReplay();
     }
 
-    private void updateBullets(float deltaTime) {
-        // Update existing bullets
-        for (int i = bullets.size - 1; i >= 0; i--) {
-            Bullet bullet = bullets.get(i);
-            bullet.x += bullet.velocityX * deltaTime;
-            bullet.y += bullet.velocityY * deltaTime;
-            
-            // Remove bullets out of screen
-            if (bullet.x > viewport.getWorldWidth() || bullet.x < 0 ||
-                bullet.y > viewport.getWorldHeight() || bullet.y < 0) {
-                bullets.removeIndex(i);
-            }
-        }
-
-        // Player shooting
-        shootTimer += deltaTime;
-        if (Gdx.input.isKeyPressed(com.badlogic.gdx.Input.Keys.SPACE) && shootTimer >= SHOOT_INTERVAL) {
-            shootTimer = 0;
-            // Increase bullet speed based on level, each level adds 20%
-            float speedMultiplier = 1.0f + (currentGun.getLevel() - 1) * 0.2f;
-            float bulletSpeed = BASE_BULLET_SPEED * speedMultiplier;
-            
-            switch(currentGun) {
-                case BASIC:
-                    // Single shot straight line
-                    createBullet(planeX + PLANE_WIDTH, planeY + PLANE_HEIGHT/2, 
-                           bulletSpeed, 0, false);
-                    break;
-                    
-                case WATER_GUN_2:
-                    // Double shot
-                    createBullet(planeX + PLANE_WIDTH, planeY + PLANE_HEIGHT/2 + 10, 
-                           bulletSpeed, 0, false);
-                    createBullet(planeX + PLANE_WIDTH, planeY + PLANE_HEIGHT/2 - 10, 
-                           bulletSpeed, 0, false);
-                    break;
-                    
-                case WATER_GUN_3:
-                case WATER_GUN_4:
-                    // Triple shot, can block enemy bullets
-                    createBullet(planeX + PLANE_WIDTH, planeY + PLANE_HEIGHT/2, 
-                           bulletSpeed, 0, true);
-                    createBullet(planeX + PLANE_WIDTH, planeY + PLANE_HEIGHT/2 + 15, 
-                           bulletSpeed, 0, true);
-                    createBullet(planeX + PLANE_WIDTH, planeY + PLANE_HEIGHT/2 - 15, 
-                           bulletSpeed, 0, true);
-                    break;
-            }
-            
-            // Play shooting sound effect
-            if (waterShootSound != null) {
-                waterShootSound.play(0.5f);
-            }
-        }
-
-        // Water gun 4's auto-attack also uses the new speed calculation
-        if (currentGun == WaterGunType.WATER_GUN_4) {
-            autoAttackTimer += deltaTime;
-            if (autoAttackTimer >= AUTO_ATTACK_INTERVAL) {
-                autoAttackTimer = 0;
-                Monster target = findNearestEnemy();
-                if (target != null) {
-                    float dx = target.x - planeX;
-                    float dy = target.y - planeY;
-                    float angle = (float)Math.atan2(dy, dx);
-                    // Increase bullet speed based on level
-                    float speedMultiplier = 1.0f + (currentGun.getLevel() - 1) * 0.2f;
-                    float bulletSpeed = BASE_BULLET_SPEED * speedMultiplier;
-                    
-                    createBullet(planeX + PLANE_WIDTH/2, 
-                               planeY + PLANE_HEIGHT/2,
-                               bulletSpeed * (float)Math.cos(angle),
-                               bulletSpeed * (float)Math.sin(angle),
-                               true);
-                }
-            }
-        }
+    // Save whatever is recorded so far and start recording the level the world was just reset to
+    private void startReplay() {
+        saveReplay();
+        replay.begin(world, stepLoop.getStepTime(), replayChecksumInterval);
     }
 
-    // Helper method: Create bullet
-    private void createBullet(float x, float y, float vx, float vy, boolean canBlock) {
-        Bullet bullet = new Bullet(x, y, false);
-        bullet.velocityX = vx;
-        bullet.velocityY = vy;
-        bullet.canBlockEnemyBullets = canBlock;
-        bullets.add(bullet);
-    }
-
-    // Find nearest enemy
-    private Monster findNearestEnemy() {
-        Monster nearest = null;
-        float minDist = Float.MAX_VALUE;
-        
-        for (Monster monster : monsters) {
-            if (!monster.active) continue;
-            float dx = monster.x - planeX;
-            float dy = monster.y - planeY;
-            float dist = dx * dx + dy * dy;
-            if (dist < minDist) {
-                minDist = dist;
-                nearest = monster;
-            }
+    // Write the recording, if there is one, for ReplayVerifier to play back
+    private void saveReplay() {
+        if (!replay.isRecording()) return;
+        replay.end();
+        if (replay.getTicks() == 0) return;
+
+        OutputStream out = null;
+        try {
+            out = Gdx.files.local(REPLAY_FILE).write(false);
+            replay.write(out);
+        } catch (Exception e) {
+            System.err.println("Error saving replay: " + e.getMessage());
+        } finally {
+            StreamUtils.closeQuietly(out);
         }
-        
-        return nearest;
     }
-
+    
     private void setFullscreen() {
         // Apply current screen mode
         applyScreenMode();
@@ -783,370 +474,73 @@ public class Main extends ApplicationAdapter {
 
     @Override
     public void resize(int width, int height) {
-        // Save current monster relative positions
-        Array<Monster> oldMonsters = new Array<Monster>();
-        for (Monster monster : monsters) {
-            if (monster.active) {
-                float relativeX = monster.x / viewport.getWorldWidth();
-                float relativeY = monster.y / viewport.getWorldHeight();
-                Monster m = new Monster(0, 0, monster.type);
-                m.health = monster.health;
-                m.shootTimer = monster.shootTimer;
-                m.shootInterval = monster.shootInterval;
-                m.x = relativeX;
-                m.y = relativeY;
-                oldMonsters.add(m);
-            }
-        }
-        
-        // Update viewport
+        // The world has fixed coordinates, only the viewport follows the window
         viewport.update(width, height, true);
         
-        // Reposition monsters based on new screen size
-        monsters.clear();
-        for (Monster m : oldMonsters) {
-            Monster newMonster = new Monster(
-                m.x * viewport.getWorldWidth(),
-                m.y * viewport.getWorldHeight(),
-                m.type
-            );
-            newMonster.health = m.health;
-            newMonster.shootTimer = m.shootTimer;
-            newMonster.shootInterval = m.shootInterval;
-            monsters.add(newMonster);
-        }
+        // Frames around a screen mode change are not representative
+        quality.resetWindow();
     }
 
-    private void checkCollisions() {
-        if (isGameOver) return;
+    // Called when the window is minimized and, as the desktop launcher sets
+    // it up, when it loses focus. Also called before dispose()
+    @Override
+    public void pause() {
+        if (suspended) return;
+        suspended = true;
         
-        // Update invincibility time
-        if (isInvincible) {
-            invincibleTimer += Gdx.graphics.getDeltaTime();
-            if (invincibleTimer >= INVINCIBLE_DURATION) {
-                isInvincible = false;
-                invincibleTimer = 0;
-            }
+        // Freeze the world behind the pause screen; the player resumes with P
+        if (gameState == GameState.PLAYING) {
+            gameState = GameState.PAUSED;
         }
+        music.pause();
         
-        // Update plane collision rectangle
-        planeRect.set(planeX, planeY, PLANE_WIDTH, PLANE_HEIGHT);
-        
-        // Check all bullet collisions
-        for (int i = bullets.size - 1; i >= 0; i--) {
-            Bullet bullet = bullets.get(i);
-            bulletRect.set(bullet.x, bullet.y, BULLET_WIDTH, BULLET_HEIGHT);
-            
-            if (bullet.isEnemy) {
-                // Check if enemy bullets (including minions and boss) hit the player
-                if (!isInvincible && planeRect.overlaps(bulletRect)) {
-                    // Remove hit bullet
-                    bullets.removeIndex(i);
-                    
-                    // Player takes damage
-                    lives--;
-                    if (lives <= 0) {
-                        isGameOver = true;
-                        gameOverTimer = 0;
-                        gameState = GameState.GAME_OVER;  // Switch to game over state
-                    } else {
-                        isInvincible = true;
-                        invincibleTimer = 0;
-                        // Add hit effect
-                        showHitEffect = true;
-                        hitEffectTimer = 0;
-                        shakeTimer = 0;
-                        // Initialize shake offset
-                        float angle = random.nextFloat() * 2 * MathUtils.PI;
-                        shakeOffsetX = MathUtils.cos(angle) * SHAKE_INTENSITY;
-                        shakeOffsetY = MathUtils.sin(angle) * SHAKE_INTENSITY;
-                    }
-                    
-                    // Play hit sound effect
-                    if (duckHitSound != null) {
-                        duckHitSound.play(0.8f);
-                    }
-                    continue;
-                }
-            } else {
-                // Check if player bullets hit enemies
-                // Check collision with normal enemies
-                for (Monster monster : monsters) {
-                    if (!monster.active) continue;
-                    
-                    monsterRect.set(monster.x, monster.y, MONSTER_WIDTH, MONSTER_HEIGHT);
-                    if (bulletRect.overlaps(monsterRect)) {
-                        monster.health--;
-                        bullets.removeIndex(i);
-                        
-                        // Play hit sound effect
-                        if (duckHitSound != null) {
-                            duckHitSound.play(0.8f);
-                        }
-                        
-                        // Generate coins
-                        if (monster.health <= 0) {
-                            monster.active = false;
-                            ducksKilled++; // Increase kill count
-                            currentScore += POINTS_PER_KILL;
-                            if (currentScore > highScore) {
-                                highScore = currentScore;
-                                prefs.putInteger(PREF_HIGH_SCORE, highScore);
-                                prefs.flush();
-                            }
-                            
-                            // Drop coins
-                            Coin coin = new Coin(monster.x + MONSTER_WIDTH/2 - COIN_WIDTH/2, 
-                                               monster.y + MONSTER_HEIGHT/2 - COIN_HEIGHT/2);
-                            coins.add(coin);
-                        }
-                        break;
-                    }
-                }
-                
-                // Check collision with Boss
-                if (isBossActive) {
-                    Rectangle bossRect = new Rectangle(bossX, bossY, BOSS_WIDTH, BOSS_HEIGHT);
-                    if (bulletRect.overlaps(bossRect)) {
-                        bossHealth--;
-                        bullets.removeIndex(i);
-                        
-                        // Play hit sound effect
-                        if (duckHitSound != null) {
-                            duckHitSound.play(0.8f);
-                        }
-                        
-                        if (bossHealth <= 0) {
-                            handleBossDefeated();
-                        }
-                    }
-                }
-            }
-        }
+        // No frames until resume(); the next frame picks the render mode again
+        Gdx.graphics.setContinuousRendering(false);
+        idleRendering = true;
         
-        // Check direct collision with enemies
-        if (!isInvincible) {
-            for (Monster monster : monsters) {
-                if (!monster.active) continue;
-                
-                monsterRect.set(monster.x, monster.y, MONSTER_WIDTH, MONSTER_HEIGHT);
-                if (planeRect.overlaps(monsterRect)) {
-                    lives--;
-                    if (lives <= 0) {
-                        isGameOver = true;
-                        gameOverTimer = 0;
-                        gameState = GameState.GAME_OVER;  // Switch to game over state
-                    } else {
-                        isInvincible = true;
-                        invincibleTimer = 0;
-                        // Add hit effect
-                        showHitEffect = true;
-                        hitEffectTimer = 0;
-                        shakeTimer = 0;
-                        // Initialize shake offset
-                        float angle = random.nextFloat() * 2 * MathUtils.PI;
-                        shakeOffsetX = MathUtils.cos(angle) * SHAKE_INTENSITY;
-                        shakeOffsetY = MathUtils.sin(angle) * SHAKE_INTENSITY;
-                    }
-                    break;
-                }
-            }
+        // Save in the background, the app may not come back
+        if (prefs != null) prefs.flush();
+        if (releaseTexturesWhenPaused && assets != null) {
+            assets.releaseTextures();
         }
     }
 
-    private void updateMonsters(float deltaTime) {
-        // Update spawn timer
-        spawnTimer += deltaTime;
-        if (spawnTimer >= SPAWN_INTERVAL && !isBossActive) {
-            // Spawn new enemies on the right
-            float y = random.nextFloat() * (viewport.getWorldHeight() - MONSTER_HEIGHT);
-            float x = viewport.getWorldWidth();
-            MonsterType type = MonsterType.values()[random.nextInt(MonsterType.values().length)];
-            monsters.add(new Monster(x, y, type));
-            spawnTimer = 0;
-        }
-
-        // Update all enemies
-        for (Monster monster : monsters) {
-            if (!monster.active) continue;
-            
-            // Move left
-            monster.x -= MONSTER_SPEED * deltaTime;
-            
-            // Remove if off screen
-            if (monster.x + MONSTER_WIDTH < 0) {
-                monster.active = false;
-            }
-            
-            // Update shooting
-            monster.shootTimer += deltaTime;
-            if (monster.shootTimer >= monster.shootInterval) {
-                float bulletX = monster.x;
-                float bulletY = monster.y + MONSTER_HEIGHT / 2;
-                bullets.add(new Bullet(bulletX, bulletY, true));
-                monster.shootTimer = 0;
-            }
-        }
-
-        // Check if Boss should spawn
-        if (!isBossActive) {
-            // Adjust Boss spawn score requirement based on difficulty
-            int bossSpawnScore = 0;
-            switch (currentDifficulty) {
-                case EASY:
-                    bossSpawnScore = 500;  // Spawn Boss earlier in easy mode
-                    break;
-                case NORMAL:
-                    bossSpawnScore = 750;  // Medium score in normal mode
-                    break;
-                case HARD:
-                    bossSpawnScore = 1000; // Keep original score in hard mode
-                    break;
-                default:
-                    bossSpawnScore = 500;
-                    break;
-            }
-            
-            if (currentScore >= bossSpawnScore) {
-                spawnBoss();
+    @Override
+    public void resume() {
+        if (!suspended) return;
+        suspended = false;
+        
+        // Reloaded textures are new objects, fetch them again for every loaded group
+        if (assets.reloadTextures()) {
+            for (GameAssets.Group group : GameAssets.Group.values()) {
+                if (assets.isLoaded(group)) onAssetsLoaded(group);
             }
         }
-
-        // Update Boss
-        if (isBossActive) {
-            updateBoss(deltaTime);
-        }
+        music.resume();
+        Gdx.graphics.requestRendering();
     }
 
-    private void spawnBoss() {
-        isBossActive = true;
-        bossX = viewport.getWorldWidth() - BOSS_WIDTH;  // Start from right edge
-        bossY = viewport.getWorldHeight() / 2 - BOSS_HEIGHT / 2;
-        
-        // Adjust Boss health based on difficulty
-        switch (currentDifficulty) {
-            case EASY:
-                bossHealth = 10;  // First level needs 10 shots
-                break;
-            case NORMAL:
-                bossHealth = 15;  // Second level needs 15 shots
-                break;
-            case HARD:
-                bossHealth = 20;  // Third level needs 20 shots
-                break;
-            default:
-                bossHealth = 10;
-                break;
-        }
-        
-        bossShootPattern = 0;
-        bossShootTimer = 0;
-        
-        // Clear all bullets on screen to give player preparation time
-        bullets.clear();
-    }
-
-    private void updateBoss(float deltaTime) {
-        // Boss on the right moves randomly
-        bossX = viewport.getWorldWidth() - BOSS_WIDTH - 100;  // Fixed X position on the right
-        
-        // Update target position
-        bossMoveCooldown += deltaTime;
-        if (bossMoveCooldown >= BOSS_MOVE_INTERVAL) {
-            bossMoveCooldown = 0;
-            // Randomly select new target position
-            bossTargetY = random.nextFloat() * (viewport.getWorldHeight() - BOSS_HEIGHT);
-        }
-        
-        // Move towards target position
-        if (bossY < bossTargetY) {
-            bossY += BOSS_SPEED * deltaTime;
-        } else if (bossY > bossTargetY) {
-            bossY -= BOSS_SPEED * deltaTime;
-        }
-        
-        // Ensure Boss doesn't move out of screen
-        bossY = Math.max(0, Math.min(bossY, viewport.getWorldHeight() - BOSS_HEIGHT));
-        
-        // Update shooting timer
-        bossShootTimer += deltaTime;
-        float shootInterval = currentDifficulty == Difficulty.EASY ? 1.5f : 
-                             currentDifficulty == Difficulty.NORMAL ? 1.2f : 1.0f;
-        
-        // Shoot tracking bullets
-        if (bossShootTimer >= shootInterval) {
-            bossShootTimer = 0;
-            
-            // Calculate player position
-            float targetX = planeX + PLANE_WIDTH/2;
-            float targetY = planeY + PLANE_HEIGHT/2;
-            
-            switch(currentDifficulty) {
-                case EASY:
-                    // Easy mode: 2 types of trajectories
-                    shootTrackingBullet(bossX, bossY + BOSS_HEIGHT/2, targetX, targetY, 300);  // Slow tracking
-                    shootDirectBullet(bossX, bossY + BOSS_HEIGHT/2, -400, 0);  // Straight line fast
-                    break;
-                    
-                case NORMAL:
-                    // Normal mode: 3 types of trajectories
-                    shootTrackingBullet(bossX, bossY + BOSS_HEIGHT/3, targetX, targetY, 350);  // Upper tracking
-                    shootTrackingBullet(bossX, bossY + BOSS_HEIGHT*2/3, targetX, targetY, 350);  // Lower tracking
-                    shootDirectBullet(bossX, bossY + BOSS_HEIGHT/2, -450, 0);  // Middle straight line
-                    break;
-                    
-                case HARD:
-                    // Hard mode: 4 types of trajectories
-                    shootTrackingBullet(bossX, bossY + BOSS_HEIGHT/4, targetX, targetY, 400);  // Fast tracking
-                    shootTrackingBullet(bossX, bossY + BOSS_HEIGHT*3/4, targetX, targetY, 400);  // Fast tracking
-                    shootDirectBullet(bossX, bossY + BOSS_HEIGHT/3, -500, 100);  // Upward diagonal shot
-                    shootDirectBullet(bossX, bossY + BOSS_HEIGHT*2/3, -500, -100);  // Downward diagonal shot
-                    break;
-            }
-            
-            // Play shooting sound effect
-            if (waterShootSound != null) {
-                waterShootSound.play(0.5f);
-            }
+    @Override
+    public void render() {
+        // Nothing runs while minimized or in the background, but an unfocused
+        // window is still visible and the backend presents any frame it is
+        // asked for, so that frame shows the frozen game
+        if (suspended) {
+            renderSuspended();
+            return;
         }
-    }
-
-    // Shoot tracking bullets
-    private void shootTrackingBullet(float startX, float startY, float targetX, float targetY, float speed) {
-        // Calculate direction vector
-        float dx = targetX - startX;
-        float dy = targetY - startY;
-        float length = (float)Math.sqrt(dx * dx + dy * dy);
         
-        // Normalize and set speed
-        float vx = dx / length * speed;
-        float vy = dy / length * speed;
+        long frameStart = TimeUtils.nanoTime();
         
-        Bullet bullet = new Bullet(startX, startY, true);
-        bullet.velocityX = vx;
-        bullet.velocityY = vy;
-        bullets.add(bullet);
-    }
-
-    // Shoot straight bullets
-    private void shootDirectBullet(float startX, float startY, float vx, float vy) {
-        Bullet bullet = new Bullet(startX, startY, true);
-        bullet.velocityX = vx;
-        bullet.velocityY = vy;
-        bullets.add(bullet);
-    }
-
-    @Override
-    public void render() {
-        // Limit frame rate to 60FPS
-        float targetFPS = 60f;
-        float targetFrameTime = 1f / targetFPS;
-        float deltaTime = Math.min(Gdx.graphics.getDeltaTime(), targetFrameTime);
+        // Frame time drives menus and effects, the world runs on fixed steps
+        float deltaTime = Gdx.graphics.getDeltaTime();
         gameTime += deltaTime;
         
-        // Clear screen
-        Gdx.gl.glClearColor(0, 0, 0, 1);
-        Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
+        // F3 toggles the performance overlay in every state
+        if (Gdx.input.isKeyJustPressed(com.badlogic.gdx.Input.Keys.F3)) {
+            perfOverlay.toggle();
+        }
+        perfOverlay.beginFrame();
         
         // Ensure blend mode is reset at the start of each frame
         batch.setBlendFunction(GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA);
@@ -1154,79 +548,324 @@ public class Main extends ApplicationAdapter {
         viewport.apply();
         batch.setProjectionMatrix(viewport.getCamera().combined);
         
-        // Update stars
-        updateStars(deltaTime);
+        // Stream in assets, a few milliseconds per frame
+        assets.update(ASSET_LOAD_MILLIS);
+        for (GameAssets.Group group = assets.pollLoaded(); group != null; group = assets.pollLoaded()) {
+            onAssetsLoaded(group);
+        }
+        
+        // Input, world steps and state changes, then the frame is drawn for
+        // the state they end in
+        update(deltaTime);
+        audio.update(deltaTime);
+        updateMusic();
+        music.update(deltaTime);
+        updateRenderMode();
         
-        // Render background in all states
+        // One batch pass per frame: background, world and HUD, screen
+        // overlays, then the performance overlay. It goes to a smaller
+        // buffer first when the screen is above the internal resolution
+        frameScaler.begin(viewport);
+        batch.begin();
+        profiler.begin(FrameProfiler.Phase.BACKGROUND);
         renderBackground();
+        profiler.end(FrameProfiler.Phase.BACKGROUND);
         
-        // Update game music
-        updateGameMusic();
+        profiler.begin(FrameProfiler.Phase.RENDER);
+        renderScreen();
+        profiler.end(FrameProfiler.Phase.RENDER);
         
+        perfOverlay.endFrame(batch, deltaTime);
+        perfOverlay.render(batch, viewport.getWorldWidth(), viewport.getWorldHeight());
+        batch.end();
+        frameScaler.end(batch, viewport);
+        
+        // Trade visual cost for frame time; loading and idle frames say nothing
+        // about it. A sampled frame waits for the GPU, so the work it measures
+        // includes drawing, and the swap's vsync wait is left out
+        if (gameState != GameState.LOADING && !idleRendering) {
+            float workTime = -1;
+            if (quality.isSampleFrame()) {
+                Gdx.gl.glFinish();
+                workTime = (TimeUtils.nanoTime() - frameStart) / 1000000000f;
+            }
+            if (quality.update(deltaTime, workTime)) applyQuality();
+        }
+    }
+
+    // Draw the state as it was left without updating anything. Textures
+    // released while in the background cannot be drawn, the screen is only
+    // cleared then
+    private void renderSuspended() {
+        viewport.apply();
+        batch.setProjectionMatrix(viewport.getCamera().combined);
+        frameScaler.begin(viewport);
+        if (!assets.hasReleasedTextures()) {
+            batch.begin();
+            renderBackground();
+            renderScreen();
+            batch.end();
+        }
+        frameScaler.end(batch, viewport);
+    }
+
+    // Everything in a frame that is not drawing. World steps and input are
+    // timed as their own phases
+    private void update(float deltaTime) {
         switch (gameState) {
+            case LOADING:
+                if (assets.isLoaded(loadingGroup)) {
+                    gameState = stateAfterLoading;
+                }
+                break;
+                
             case MENU:
                 handleMenuInput();
-                renderMenu();
+                if (!firstInteractiveReported) {
+                    firstInteractiveReported = true;
+                    Gdx.app.log("Startup", "Time to first interactive frame: " + assets.getElapsedMillis() + " ms");
+                }
                 break;
                 
             case SHOP:
                 handleShopInput();
-                renderShop();
                 break;
                 
             case PLAYING:
-                if (!isGameOver) {
+                if (!world.isGameOver) {
+                    profiler.begin(FrameProfiler.Phase.INPUT);
                     handleInput();
-                    updateBullets(deltaTime);
-                    updateMonsters(deltaTime);
-                    updateCoins(deltaTime);
-                    checkCollisions();
+                    profiler.end(FrameProfiler.Phase.INPUT);
+                    if (gameState == GameState.PLAYING) {
+                        updateWorld(deltaTime);
+                    }
+                    if (world.isGameOver) {
+                        gameOverTimer = 0;
+                        gameState = GameState.GAME_OVER;  // Switch to game over state
+                        prefs.flush();
+                        saveReplay();
+                    } else if (world.isLevelComplete) {
+                        // Switch to level complete state, but keep current difficulty unchanged
+                        gameState = GameState.LEVEL_COMPLETE;
+                        prefs.flush();
+                        saveReplay();
+                    }
                 }
-                renderGame();
                 break;
                 
             case GAME_OVER:
-                    gameOverTimer += deltaTime;
-                renderGameOver();
+                gameOverTimer += deltaTime;
                 // Press space key to return to main menu
                 if (gameOverTimer >= RESTART_DELAY && 
                     Gdx.input.isKeyJustPressed(com.badlogic.gdx.Input.Keys.SPACE)) {
-                        gameState = GameState.MENU;
+                    gameState = GameState.MENU;
                     resetGame();
-                    }
+                }
                 break;
                 
             case PAUSED:
+                replay.recordPause();
                 handleInput();
-                renderGame();
-                renderPause();
                 break;
 
             case GAME_COMPLETE:
                 completeTimer += deltaTime;
-                renderGameComplete();
                 if (completeTimer >= COMPLETE_DISPLAY_TIME) {
                     gameState = GameState.MENU;
                     currentDifficulty = Difficulty.EASY;
                 }
                 break;
 
-            case IN_GAME_MENU:
-                handleInGameMenuInput();
-                renderGame();
-                renderInGameMenu();
-                break;
+            case IN_GAME_MENU:
+                replay.recordPause();
+                handleInGameMenuInput();
+                break;
+
+            case LEVEL_COMPLETE:
+                handleLevelCompleteInput();
+                break;
+
+            case GUN_SELECT:
+                handleGunSelect();
+                break;
+        }
+    }
+
+    // Static screens only draw a frame on input, which the backend wakes the
+    // loop for, or when a timer on them runs out. Everything else, and any
+    // screen while assets still stream in or music crossfades, draws continuously
+    private void updateRenderMode() {
+        boolean idle = isStaticScreen() && assets.isFinished() && !perfOverlay.isVisible() && !music.isFading();
+        if (idle != idleRendering) {
+            idleRendering = idle;
+            Gdx.graphics.setContinuousRendering(!idle);
+            if (!idle) {
+                // The next frame time is short again, the gap before this one
+                // must not turn into catch-up steps or a quality decision
+                wakeTask.cancel();
+                stepLoop.reset();
+                quality.resetWindow();
+            }
+        }
+        if (idle && gameState == GameState.GAME_COMPLETE) {
+            wakeAfter(COMPLETE_DISPLAY_TIME - completeTimer);
+        }
+    }
+
+    private boolean isStaticScreen() {
+        switch (gameState) {
+            case MENU:
+            case SHOP:
+            case GUN_SELECT:
+            case PAUSED:
+            case IN_GAME_MENU:
+            case LEVEL_COMPLETE:
+            case GAME_OVER:
+            case GAME_COMPLETE:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    // Draw a frame after seconds even without input
+    private void wakeAfter(float seconds) {
+        wakeTask.cancel();
+        Timer.schedule(wakeTask, Math.max(0.05f, seconds));
+    }
+
+    // Draw the current state over the background. The batch is drawing
+    private void renderScreen() {
+        switch (gameState) {
+            case LOADING:
+                renderLoading();
+                break;
+            case MENU:
+                renderMenu();
+                break;
+            case SHOP:
+                renderShop();
+                break;
+            case PLAYING:
+                renderGame();
+                break;
+            case GAME_OVER:
+                renderGameOver();
+                break;
+            case PAUSED:
+                renderGame();
+                renderPause();
+                break;
+            case GAME_COMPLETE:
+                renderGameComplete();
+                break;
+            case IN_GAME_MENU:
+                renderGame();
+                renderInGameMenu();
+                break;
+            case LEVEL_COMPLETE:
+                renderLevelComplete();
+                break;
+            case GUN_SELECT:
+                renderGunSelect();
+                break;
+        }
+    }
+
+    // Run as many fixed steps as the frame time covers
+    private void updateWorld(float deltaTime) {
+        profiler.begin(FrameProfiler.Phase.INPUT);
+        InputFrame input = pollInput();
+        profiler.end(FrameProfiler.Phase.INPUT);
+        int steps = stepLoop.advance(deltaTime);
+        for (int i = 0; i < steps && !world.isGameOver && !world.isLevelComplete; i++) {
+            world.step(stepLoop.getStepTime(), input);
+            replay.record(input, world);
+        }
+        renderAlpha = stepLoop.getAlpha();
+        updateEffects(deltaTime);
+        handleWorldEvents();
+    }
+
+    // Sound, effects and saving for everything the steps of this frame did.
+    // Coins and score come from the world, once per frame, so a burst of
+    // pickups costs one save; the audio dispatcher merges the sounds
+    private void handleWorldEvents() {
+        GameEvents events = world.events;
+        boolean damaged = false;
+        for (int i = 0; i < events.size(); i++) {
+            switch (events.getType(i)) {
+                case SHOT:
+                    audio.play(shotSound, 0.5f);
+                    break;
+                case HIT:
+                    audio.play(hitSound, 0.8f);
+                    break;
+                case PLAYER_DAMAGED:
+                    // The last life lost ends the game instead
+                    if (events.getValue(i) > 0) damaged = true;
+                    break;
+                case COIN_COLLECTED:
+                    audio.play(powerupSound, 0.1f);
+                    break;
+                case BOSS_DEFEATED:
+                    // Play victory sound
+                    audio.play(powerupSound, 1.0f);
+                    break;
+                default:
+                    break;
+            }
+        }
+        events.removeFirst(events.size());
+        
+        int coins = world.takeCollectedCoins();
+        if (coins > 0) {
+            totalCoins += coins;
+            prefs.putInteger("totalCoins", totalCoins);
+        }
+        if (world.currentScore > highScore) {
+            highScore = world.currentScore;
+            // Written with the rest of the save at level end
+            prefs.putInteger(PREF_HIGH_SCORE, highScore);
+        }
+        if (damaged) {
+            hitEffectTimer = 0;
+            shakeTimer = 0;
+            setShakeOffset(1f);
+        }
+    }
+
+    // Hit flash and screen shake run on frame time, they are not part of the simulation
+    private void updateEffects(float deltaTime) {
+        if (hitEffectTimer < HIT_EFFECT_DURATION) {
+            hitEffectTimer += deltaTime;
+        }
+        if (shakeTimer < SHAKE_DURATION) {
+            shakeTimer += deltaTime;
+            if (shakeTimer >= SHAKE_DURATION) {
+                shakeOffsetX = 0;
+                shakeOffsetY = 0;
+            } else {
+                setShakeOffset(1.0f - shakeTimer / SHAKE_DURATION);  // Gradually reduce shake intensity
+            }
+        }
+    }
 
-            case LEVEL_COMPLETE:
-                renderLevelComplete();
-                handleLevelCompleteInput();
-                break;
+    private void setShakeOffset(float damping) {
+        float angle = MathUtils.random(MathUtils.PI2);
+        shakeOffsetX = MathUtils.cos(angle) * SHAKE_INTENSITY * damping;
+        shakeOffsetY = MathUtils.sin(angle) * SHAKE_INTENSITY * damping;
+    }
 
-            case GUN_SELECT:
-                renderGunSelect();
-                handleGunSelect();
-                break;
-        }
+    private void resetEffects() {
+        hitEffectTimer = HIT_EFFECT_DURATION;
+        shakeTimer = SHAKE_DURATION;
+        shakeOffsetX = 0;
+        shakeOffsetY = 0;
+    }
+
+    private static float lerp(float from, float to, float alpha) {
+        return from + (to - from) * alpha;
     }
 
     private void handleMenuInput() {
@@ -1249,25 +888,22 @@ public class Main extends ApplicationAdapter {
             
             // Handle shop button click
             if (shopButton.contains(worldCoords.x, worldCoords.y)) {
-                gameState = GameState.SHOP;
+                enterState(GameState.SHOP, GameAssets.Group.SHOP);
                 return;
             }
             
             if (startGameButton.contains(worldCoords.x, worldCoords.y)) {
-                gameState = GameState.GUN_SELECT;  // Enter selection interface instead of shop
+                enterState(GameState.GUN_SELECT, GameAssets.Group.SHOP);  // Enter selection interface instead of shop
             } else if (difficultyButton.contains(worldCoords.x, worldCoords.y)) {
                 // Cycle through difficulty
                 switch (currentDifficulty) {
                     case EASY:
-                        currentDifficultyText = "NORMAL";
                         currentDifficulty = Difficulty.NORMAL;
                         break;
                     case NORMAL:
-                        currentDifficultyText = "HARD";
                         currentDifficulty = Difficulty.HARD;
                         break;
                     case HARD:
-                        currentDifficultyText = "EASY";
                         currentDifficulty = Difficulty.EASY;
                         break;
                     default:
@@ -1281,241 +917,188 @@ public class Main extends ApplicationAdapter {
     }
 
     private void renderMenu() {
-        batch.begin();
-        // Draw background
-        batch.draw(menuBackground, 0, 0, viewport.getWorldWidth(), viewport.getWorldHeight());
-        
         // Use titleFont to draw game title
         titleFont.setColor(Color.BLACK);
         String title = "DuckSplash!";
-        layout.setText(titleFont, title);
-        float titleX = (viewport.getWorldWidth() - layout.width) / 2;
+        float titleX = (viewport.getWorldWidth() - hudText.label(titleFont, title).width) / 2;
         float titleY = viewport.getWorldHeight() * 0.8f;
         titleFont.draw(batch, title, titleX, titleY);
         
         // Draw shop button
         batch.setColor(0.3f, 0.3f, 0.7f, 0.7f);
-        batch.draw(bulletTexture, shopButton.x, shopButton.y, shopButton.width, shopButton.height);
+        batch.draw(bulletRegion, shopButton.x, shopButton.y, shopButton.width, shopButton.height);
         batch.setColor(1, 1, 1, 1);
         font.setColor(Color.BLACK);
-        String shopText = "Shop";
-        layout.setText(font, shopText);
-        font.draw(batch, shopText,
-                 shopButton.x + (shopButton.width - layout.width) / 2,
-                 shopButton.y + (shopButton.height + layout.height) / 2);
+        drawCentered(font, "Shop", shopButton);
         
         // Draw coins number
-        String coinsText = "Coins: " + totalCoins;
-        layout.setText(font, coinsText);
-        float coinsX = viewport.getWorldWidth() - layout.width - 20;
+        GlyphLayout coinsLayout = menuCoinsText.set(totalCoins).layout(font);
+        float coinsX = viewport.getWorldWidth() - coinsLayout.width - 20;
         float coinsY = viewport.getWorldHeight() - 20;
-        font.draw(batch, coinsText, coinsX, coinsY);
+        font.draw(batch, menuCoinsText.text(), coinsX, coinsY);
         
         // Use normal font to draw menu options
         font.setColor(Color.BLACK);  // Change to black
-        String[] menuItems = {"Start Game", "Difficulty: " + currentDifficultyText, "Exit"};
         
         // Draw button text (no background)
-        // Start game button
-        layout.setText(font, menuItems[0]);
-        font.draw(batch, menuItems[0], 
-                 startGameButton.x + (startGameButton.width - layout.width) / 2,
-                 startGameButton.y + (startGameButton.height + layout.height) / 2);
-        
-        // Difficulty selection button
-        layout.setText(font, menuItems[1]);
-        font.draw(batch, menuItems[1], 
-                 difficultyButton.x + (difficultyButton.width - layout.width) / 2,
-                 difficultyButton.y + (difficultyButton.height + layout.height) / 2);
-        
-        // Exit button
-        layout.setText(font, menuItems[2]);
-        font.draw(batch, menuItems[2], 
-                 quitButton.x + (quitButton.width - layout.width) / 2,
-                 quitButton.y + (quitButton.height + layout.height) / 2);
+        drawCentered(font, "Start Game", startGameButton);
+        drawCentered(font, DIFFICULTY_TEXTS[currentDifficulty.ordinal()], difficultyButton);
+        drawCentered(font, "Exit", quitButton);
         
         // Add screen mode hint
         font.getData().setScale(1.0f);
         String screenModeText = "Press F11 to toggle fullscreen";
-        layout.setText(font, screenModeText);
         float screenModeX = 20;
         float screenModeY = 40;
         font.draw(batch, screenModeText, screenModeX, screenModeY);
         
         if (currentScreenMode == ScreenMode.WINDOWED) {
-            String windowSizeText = "Press F10 to cycle window size: " + 
-                windowedSizes[currentWindowSizeIndex * 2] + "x" + 
-                windowedSizes[currentWindowSizeIndex * 2 + 1];
-            layout.setText(font, windowSizeText);
-            font.draw(batch, windowSizeText, screenModeX, screenModeY + 30);
+            font.draw(batch, getWindowSizeText(currentWindowSizeIndex), screenModeX, screenModeY + 30);
         }
-        
-        batch.end();
     }
 
     private void drawButton(SpriteBatch batch, String text, Rectangle button, boolean selected) {
         // Draw button text
         font.setColor(selected ? 0f : 1f, selected ? 1f : 1f, selected ? 0f : 1f, 1f);
-        layout.setText(font, text);
-        font.draw(batch, text, 
-                 button.x + button.width / 2 - layout.width / 2,
-                 button.y + button.height / 2 + layout.height / 2);
+        drawCentered(font, text, button);
     }
 
-    private void renderGame() {
-        batch.begin();
-        // Reset blend mode
-        batch.setBlendFunction(GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA);
-        
-        // Draw stars
-        for (Star star : stars) {
-            batch.setColor(star.brightness, star.brightness, star.brightness, 1);
-            batch.draw(bulletTexture, star.x, star.y, star.size, star.size);
+    // Draw a fixed label centered in button with the font's current color and scale
+    private void drawCentered(BitmapFont font, String text, Rectangle button) {
+        GlyphLayout label = hudText.label(font, text);
+        font.draw(batch, text,
+                 button.x + (button.width - label.width) / 2,
+                 button.y + (button.height + label.height) / 2);
+    }
+
+    // Built the first time each size is shown, the menu draws it every frame
+    private String getWindowSizeText(int index) {
+        if (windowSizeTexts[index] == null) {
+            windowSizeTexts[index] = "Press F10 to cycle window size: " +
+                windowedSizes[index * 2] + "x" + windowedSizes[index * 2 + 1];
         }
-        
-        // Reset color to white
-        batch.setColor(1, 1, 1, 1);
+        return windowSizeTexts[index];
+    }
+
+    private void renderGame() {
+        // Stars go straight over the background, between batch flushes
+        starfield.render(batch, viewport.getWorldWidth(), viewport.getWorldHeight(), gameTime);
 
         // Draw coins
-        for (Coin coin : coins) {
+        for (Coin coin : world.coins) {
             if (coin.active) {
-                batch.draw(coinTexture, coin.x, coin.y, COIN_WIDTH, COIN_HEIGHT);
+                renderQueue.draw(LAYER_COINS, coinRegion, coin.x, lerp(coin.prevY, coin.y, renderAlpha),
+                          World.COIN_WIDTH, World.COIN_HEIGHT);
             }
         }
         
         // Draw enemies
-        for (Monster monster : monsters) {
+        for (int i = 0; i < world.monsters.size; i++) {
+            Monster monster = world.monsters.get(i);
             if (monster.active) {
                 // Set transparency based on health
                 float alpha = monster.health / 3.0f;  // Lower health means more transparent
-                batch.setColor(1, 1, 1, alpha);  // Use original color, only change transparency
-                batch.draw(monsterTexture, monster.x, monster.y, MONSTER_WIDTH, MONSTER_HEIGHT);
+                renderQueue.setColor(1, 1, 1, alpha);  // Use original color, only change transparency
+                renderQueue.draw(LAYER_ENEMIES, monsterRegion,
+                          lerp(monster.prevX, monster.x, renderAlpha),
+                          lerp(monster.prevY, monster.y, renderAlpha),
+                          World.MONSTER_WIDTH, World.MONSTER_HEIGHT);
             }
         }
         
         // Draw Boss
-        if (isBossActive) {
-            batch.setColor(1, 1, 1, 1);
+        if (world.isBossActive) {
+            float bossX = lerp(world.prevBossX, world.bossX, renderAlpha);
+            float bossY = lerp(world.prevBossY, world.bossY, renderAlpha);
+            renderQueue.setColor(1, 1, 1, 1);
             // Choose different Boss images based on difficulty
-            Texture currentBossTexture = currentDifficulty == Difficulty.EASY ? boss1Texture :
-                                       currentDifficulty == Difficulty.NORMAL ? boss2Texture :
-                                       boss3Texture;
-            batch.draw(currentBossTexture, bossX, bossY, BOSS_WIDTH, BOSS_HEIGHT);
+            TextureRegion currentBossRegion = currentDifficulty == Difficulty.EASY ? boss1Region :
+                                       currentDifficulty == Difficulty.NORMAL ? boss2Region :
+                                       boss3Region;
+            renderQueue.draw(LAYER_ENEMIES, currentBossRegion, bossX, bossY, World.BOSS_WIDTH, World.BOSS_HEIGHT);
             
             // Draw Boss health bar
-            float healthBarWidth = BOSS_WIDTH;
+            float healthBarWidth = World.BOSS_WIDTH;
             float healthBarHeight = 10;
-            float healthPercentage = bossHealth / (float)(currentDifficulty == Difficulty.EASY ? 10 : 
-                                                         currentDifficulty == Difficulty.NORMAL ? 15 : 20);
+            float healthPercentage = world.bossHealth / (float)world.getBossMaxHealth();
             
             // Blood bar background (gray)
-            batch.setColor(0.3f, 0.3f, 0.3f, 1f);
-            batch.draw(bulletTexture, bossX, bossY + BOSS_HEIGHT + 10, 
+            renderQueue.setColor(0.3f, 0.3f, 0.3f, 1f);
+            renderQueue.draw(LAYER_BOSS_BAR, bulletRegion, bossX, bossY + World.BOSS_HEIGHT + 10, 
                       healthBarWidth, healthBarHeight);
             
             // Current health (white)
-            batch.setColor(1f, 1f, 1f, 1f);
-            batch.draw(bulletTexture, bossX, bossY + BOSS_HEIGHT + 10, 
+            renderQueue.setColor(1f, 1f, 1f, 1f);
+            renderQueue.draw(LAYER_BOSS_BAR, bulletRegion, bossX, bossY + World.BOSS_HEIGHT + 10, 
                       healthBarWidth * healthPercentage, healthBarHeight);
             
-            // Show Boss health text (white)
+            // Show Boss health text (white), with the HUD text so the font texture is bound once
             font.setColor(1, 1, 1, 1);
-            font.draw(batch, "Boss HP: " + bossHealth, bossX, bossY + BOSS_HEIGHT + 30);
+            renderQueue.drawText(LAYER_HUD, font, bossHealthText.set(world.bossHealth).text(),
+                      bossX, bossY + World.BOSS_HEIGHT + 30);
         }
         
         // Draw bullets
-        for (Bullet bullet : bullets) {
-            if (bullet.isEnemy) {
-                if (isBossActive) {
-                    batch.setColor(1f, 0.5f, 0f, 1f);  // Boss bullet is orange
-                    batch.draw(bullet2Texture, bullet.x, bullet.y, 
+        BulletStore bullets = world.bullets;
+        for (int i = 0; i < bullets.size; i++) {
+            float bulletX = lerp(bullets.prevX[i], bullets.x[i], renderAlpha);
+            float bulletY = lerp(bullets.prevY[i], bullets.y[i], renderAlpha);
+            if (bullets.isEnemy(i)) {
+                if (world.isBossActive) {
+                    renderQueue.setColor(1f, 0.5f, 0f, 1f);  // Boss bullet is orange
+                    renderQueue.draw(LAYER_BULLETS, bullet2Region, bulletX, bulletY, 
                              BOSS_BULLET_HEIGHT/2, BOSS_BULLET_WIDTH/2,  // Swap width and height center points
                              BOSS_BULLET_HEIGHT, BOSS_BULLET_WIDTH,      // Swap width and height
-                             1, 1,
-                             90,
-                             0, 0,
-                             bullet2Texture.getWidth(), bullet2Texture.getHeight(),
-                             false, false);
+                             90);
                 } else {
-                    batch.setColor(1f, 1f, 1f, 1f);  // Enemy bullet uses original color
-                    batch.draw(bullet2Texture, bullet.x, bullet.y, 
-                             BULLET_WIDTH/2, BULLET_HEIGHT/2,  // Swap width and height center points
-                             BULLET_WIDTH, BULLET_HEIGHT,      // Swap width and height
-                             1, 1,
-                             90,
-                             0, 0,
-                             bullet2Texture.getWidth(), bullet2Texture.getHeight(),
-                             false, false);
+                    renderQueue.setColor(1f, 1f, 1f, 1f);  // Enemy bullet uses original color
+                    renderQueue.draw(LAYER_BULLETS, bullet2Region, bulletX, bulletY, 
+                             World.BULLET_WIDTH/2, World.BULLET_HEIGHT/2,  // Swap width and height center points
+                             World.BULLET_WIDTH, World.BULLET_HEIGHT,      // Swap width and height
+                             90);
                 }
             } else {
-                batch.setColor(1f, 1f, 1f, 1f);  // Player bullet uses original color
-                batch.draw(bulletTexture, bullet.x, bullet.y, 
-                         BULLET_WIDTH/2, BULLET_HEIGHT/2,  // Swap width and height center points
-                         BULLET_WIDTH, BULLET_HEIGHT,      // Swap width and height
-                         1, 1,
-                         90,
-                         0, 0,
-                         bulletTexture.getWidth(), bulletTexture.getHeight(),
-                         false, false);
+                renderQueue.setColor(1f, 1f, 1f, 1f);  // Player bullet uses original color
+                renderQueue.draw(LAYER_BULLETS, bulletRegion, bulletX, bulletY, 
+                         World.BULLET_WIDTH/2, World.BULLET_HEIGHT/2,  // Swap width and height center points
+                         World.BULLET_WIDTH, World.BULLET_HEIGHT,      // Swap width and height
+                         90);
             }
         }
         
-        if (!isGameOver) {
-            // Update hit effect
-            if (showHitEffect) {
-                hitEffectTimer += Gdx.graphics.getDeltaTime();
-                if (hitEffectTimer >= HIT_EFFECT_DURATION) {
-                    showHitEffect = false;
-                    hitEffectTimer = 0;
-                }
-            }
-            
-            // Update shake effect
-            if (shakeTimer < SHAKE_DURATION) {
-                shakeTimer += Gdx.graphics.getDeltaTime();
-                if (shakeTimer >= SHAKE_DURATION) {
-                    shakeOffsetX = 0;
-                    shakeOffsetY = 0;
-                } else {
-                    float progress = shakeTimer / SHAKE_DURATION;
-                    float damping = 1.0f - progress; // Gradually reduce shake intensity
-                    float angle = random.nextFloat() * 2 * MathUtils.PI;
-                    shakeOffsetX = MathUtils.cos(angle) * SHAKE_INTENSITY * damping;
-                    shakeOffsetY = MathUtils.sin(angle) * SHAKE_INTENSITY * damping;
-                }
-            }
-            
+        if (!world.isGameOver) {
             // Draw plane - in invincible state transparency changes
             float alpha = 1.0f;
-            if (isInvincible) {
+            if (world.isInvincible) {
                 // Lower flashing frequency, use smoother transition
-                alpha = 0.5f + (float)Math.abs(Math.sin(invincibleTimer * 2)) * 0.5f;
+                alpha = 0.5f + (float)Math.abs(Math.sin(world.invincibleTimer * 2)) * 0.5f;
             }
             
             // Apply hit effect color
-            if (showHitEffect) {
+            if (hitEffectTimer < HIT_EFFECT_DURATION && !quality.isReduced(QualityController.Step.NO_HIT_FLASH)) {
                 float hitProgress = hitEffectTimer / HIT_EFFECT_DURATION;
                 float flash = 1.0f - hitProgress; // Flash intensity decreases over time
-                batch.setColor(1, 1 - flash * 0.5f, 1 - flash * 0.5f, alpha); // Red tint
+                renderQueue.setColor(1, 1 - flash * 0.5f, 1 - flash * 0.5f, alpha); // Red tint
             } else {
-                batch.setColor(1, 1, 1, alpha);
+                renderQueue.setColor(1, 1, 1, alpha);
             }
             
             // Draw with shake offset
-            batch.draw(planeTexture, 
-                      planeX + shakeOffsetX, 
-                      planeY + shakeOffsetY, 
-                      PLANE_WIDTH, PLANE_HEIGHT);
+            boolean shake = !quality.isReduced(QualityController.Step.NO_SCREEN_SHAKE);
+            renderQueue.draw(LAYER_PLAYER, planeRegion, 
+                      lerp(world.prevPlaneX, world.planeX, renderAlpha) + (shake ? shakeOffsetX : 0), 
+                      lerp(world.prevPlaneY, world.planeY, renderAlpha) + (shake ? shakeOffsetY : 0), 
+                      World.PLANE_WIDTH, World.PLANE_HEIGHT);
         } else {
             // Use smoother fade out effect
             float fadeOut = 1.0f - (gameOverTimer / RESTART_DELAY);
             fadeOut = Math.max(0, Math.min(1, fadeOut)); // Limit between 0 and 1
             
-            batch.setColor(1, 1, 1, fadeOut);
+            renderQueue.setColor(1, 1, 1, fadeOut);
             
             // Calculate explosion animation position (centered on plane position)
-            float explosionX = planeX + PLANE_WIDTH/2 - DEAD_WIDTH/2;
-            float explosionY = planeY + PLANE_HEIGHT/2 - DEAD_HEIGHT/2;
+            float explosionX = world.planeX + World.PLANE_WIDTH/2 - DEAD_WIDTH/2;
+            float explosionY = world.planeY + World.PLANE_HEIGHT/2 - DEAD_HEIGHT/2;
             
             // Draw death animation, use smoother scaling effect
             float scale = 1.0f + gameOverTimer * 0.3f; // Lower scaling speed
@@ -1526,31 +1109,30 @@ public class Main extends ApplicationAdapter {
             explosionX = explosionX - (width - DEAD_WIDTH)/2;
             explosionY = explosionY - (height - DEAD_HEIGHT)/2;
             
-            batch.draw(deadRegion, explosionX, explosionY, width, height);
-            batch.setColor(1, 1, 1, 1);
+            renderQueue.draw(LAYER_PLAYER, deadRegion, explosionX, explosionY, width, height);
         }
         
         // Draw score and coins
-        batch.setColor(1, 1, 1, 1);
+        renderQueue.setColor(1, 1, 1, 1);
         
         // Draw kill count and icon - top left corner
-        batch.draw(monster2Texture, 
+        renderQueue.draw(LAYER_HUD, monster2Region, 
                   20, 
                   viewport.getWorldHeight() - 40,
                   30, 30);
         
-        font.draw(batch, "x " + ducksKilled, 
+        renderQueue.drawText(LAYER_HUD, font, ducksText.set(world.ducksKilled).text(), 
                  60, 
                  viewport.getWorldHeight() - 20);
         
         // Draw coin icon and number - below kill count
-        batch.draw(coinTexture, 
+        renderQueue.draw(LAYER_HUD, coinRegion, 
                   20, 
                   viewport.getWorldHeight() - 80, 
                   30, 
                   30);
         
-        font.draw(batch, "x " + currentLevelCoins, 
+        renderQueue.drawText(LAYER_HUD, font, coinsText.set(world.currentLevelCoins).text(), 
                  60, 
                  viewport.getWorldHeight() - 60);
         
@@ -1559,29 +1141,26 @@ public class Main extends ApplicationAdapter {
         float livesY = viewport.getWorldHeight() - 120; // Position below coins
         
         // Draw lives icon - from left to right
-        for (int i = 0; i < lives; i++) {
-            batch.draw(livesTexture, 
+        for (int i = 0; i < world.lives; i++) {
+            renderQueue.draw(LAYER_HUD, livesRegion, 
                       20 + (i * (livesIconSize + 5)), 
                       livesY, 
                       livesIconSize, 
                       livesIconSize);
         }
         
-        batch.end();
+        // Sorted by layer and texture, then drawn in as few flushes as possible
+        renderQueue.submit(batch);
+        batch.setColor(1, 1, 1, 1);
     }
 
     private void renderGameComplete() {
-        batch.begin();
-        // Draw background
-        batch.draw(backgroundTexture, 0, 0, viewport.getWorldWidth(), viewport.getWorldHeight());
-        
         // Draw通关信息
         font.setColor(1, 1, 1, 1);  // Use white
         font.getData().setScale(4);  // Set larger font size
         
         String completeText = "GAME COMPLETE!";
-        layout.setText(font, completeText);
-        float completeX = (viewport.getWorldWidth() - layout.width) / 2;
+        float completeX = (viewport.getWorldWidth() - hudText.label(font, completeText).width) / 2;
         float completeY = viewport.getWorldHeight() * 0.7f;
         font.draw(batch, completeText, completeX, completeY);
         
@@ -1589,66 +1168,39 @@ public class Main extends ApplicationAdapter {
         font.getData().setScale(2);
         
         // Draw duck icon and kill count
-        batch.draw(monster2Texture, 
+        batch.draw(monster2Region, 
                   viewport.getWorldWidth() / 2 - 100,  // Center left
                   viewport.getWorldHeight() * 0.5f - 15,  // Vertical position adjustment
                   30, 30);  // Icon size
         
-        String ducksText = "x " + ducksKilled;
-        layout.setText(font, ducksText);
-        font.draw(batch, ducksText,
+        font.draw(batch, ducksText.set(world.ducksKilled).text(),
                  viewport.getWorldWidth() / 2 - 60,  // Right of icon
                  viewport.getWorldHeight() * 0.5f + 10);
         
         // Draw coin icon and number
-        batch.draw(coinTexture, 
+        batch.draw(coinRegion, 
                   viewport.getWorldWidth() / 2 - 100,  // Center left
                   viewport.getWorldHeight() * 0.4f - 15,  // Vertical position adjustment
                   30, 30);  // Icon size
         
-        String coinsText = "x " + currentLevelCoins;
-        layout.setText(font, coinsText);
-        font.draw(batch, coinsText,
+        font.draw(batch, coinsText.set(world.currentLevelCoins).text(),
                  viewport.getWorldWidth() / 2 - 60,  // Right of icon
                  viewport.getWorldHeight() * 0.4f + 10);
         
         // Add tip information
         String tipText = "PRESS ESC TO RETURN";
-        layout.setText(font, tipText);
-        float tipX = (viewport.getWorldWidth() - layout.width) / 2;
+        float tipX = (viewport.getWorldWidth() - hudText.label(font, tipText).width) / 2;
         float tipY = viewport.getWorldHeight() * 0.2f;
         font.draw(batch, tipText, tipX, tipY);
         
         font.getData().setScale(1);  // Restore default font size
-        batch.end();
     }
 
     private void applyDifficultySettings() {
-        DifficultySettings settings;
-        switch (currentDifficulty) {
-            case EASY:
-                settings = easySettings;
-                break;
-            case HARD:
-                settings = hardSettings;
-                break;
-            default:
-                settings = normalSettings;
-                break;
-        }
-        
-        MONSTER_SPEED = settings.duckSpeed;
-        MONSTER_VERTICAL_SPEED = settings.duckVerticalSpeed;
-        MONSTER_COUNT = settings.duckCount;
-        SHOOT_INTERVAL = settings.shootInterval;
-        
-        // Force re-render background
-        renderBackground();
+        world.setDifficulty(currentDifficulty);
     }
 
     private void handleInput() {
-        float deltaTime = Gdx.graphics.getDeltaTime();
-        
         // Handle F11 key to toggle fullscreen/window mode
         if (Gdx.input.isKeyJustPressed(com.badlogic.gdx.Input.Keys.F11)) {
             toggleScreenMode();
@@ -1681,68 +1233,41 @@ public class Main extends ApplicationAdapter {
             }
             return;
         }
-        
-        // 自由移动
-        if (Gdx.input.isKeyPressed(com.badlogic.gdx.Input.Keys.UP)) {
-            planeY += PLANE_SPEED * deltaTime;
-        }
-        if (Gdx.input.isKeyPressed(com.badlogic.gdx.Input.Keys.DOWN)) {
-            planeY -= PLANE_SPEED * deltaTime;
-        }
-        if (Gdx.input.isKeyPressed(com.badlogic.gdx.Input.Keys.LEFT)) {
-            planeX -= PLANE_SPEED * deltaTime;
-        }
-        if (Gdx.input.isKeyPressed(com.badlogic.gdx.Input.Keys.RIGHT)) {
-            planeX += PLANE_SPEED * deltaTime;
-        }
-        
-        // Ensure plane doesn't move out of screen range
-        planeX = Math.max(0, Math.min(planeX, viewport.getWorldWidth() - PLANE_WIDTH));
-        planeY = Math.max(0, Math.min(planeY, viewport.getWorldHeight() - PLANE_HEIGHT));
     }
 
-    private void updateStars(float deltaTime) {
-        if (stars == null) {
-            stars = new Array<Star>();
-            for (int i = 0; i < STAR_COUNT; i++) {
-                stars.add(new Star());
-            }
-        }
-        
-        // let some stars flash
-        for (Star star : stars) {
-            star.brightness = Math.max(0.5f, Math.min(1f, 
-                star.brightness + (random.nextFloat() - 0.5f) * deltaTime));
-        }
+    // Read the gameplay controls for this frame into the reusable input frame
+    private InputFrame pollInput() {
+        return inputFrame.set(
+            Gdx.input.isKeyPressed(com.badlogic.gdx.Input.Keys.UP),
+            Gdx.input.isKeyPressed(com.badlogic.gdx.Input.Keys.DOWN),
+            Gdx.input.isKeyPressed(com.badlogic.gdx.Input.Keys.LEFT),
+            Gdx.input.isKeyPressed(com.badlogic.gdx.Input.Keys.RIGHT),
+            Gdx.input.isKeyPressed(com.badlogic.gdx.Input.Keys.SPACE));
     }
 
     private void renderPause() {
-        batch.begin();
         // Draw semi-transparent black background
         batch.setColor(0, 0, 0, 0.5f);
-        batch.draw(bulletTexture, 0, 0, viewport.getWorldWidth(), viewport.getWorldHeight());
+        batch.draw(bulletRegion, 0, 0, viewport.getWorldWidth(), viewport.getWorldHeight());
         
         // Draw pause text
         font.setColor(1, 1, 1, 1);
         font.getData().setScale(4);
         
         String pauseText = "GAME PAUSED";
-        layout.setText(font, pauseText);
-        float pauseX = (viewport.getWorldWidth() - layout.width) / 2;
+        float pauseX = (viewport.getWorldWidth() - hudText.label(font, pauseText).width) / 2;
         float pauseY = viewport.getWorldHeight() * 0.6f;
         font.draw(batch, pauseText, pauseX, pauseY);
         
         // Draw tip text
         font.getData().setScale(2);
         String tipText = "PRESS P TO CONTINUE";
-        layout.setText(font, tipText);
-        float tipX = (viewport.getWorldWidth() - layout.width) / 2;
+        float tipX = (viewport.getWorldWidth() - hudText.label(font, tipText).width) / 2;
         float tipY = viewport.getWorldHeight() * 0.4f;
         font.draw(batch, tipText, tipX, tipY);
         
         font.getData().setScale(1);
         batch.setColor(1, 1, 1, 1);
-        batch.end();
     }
 
     private void handleInGameMenuInput() {
@@ -1762,17 +1287,15 @@ public class Main extends ApplicationAdapter {
     }
 
     private void renderInGameMenu() {
-        batch.begin();
         // Draw semi-transparent black background
         batch.setColor(0, 0, 0, 0.8f);
-        batch.draw(bulletTexture, 0, 0, viewport.getWorldWidth(), viewport.getWorldHeight());
+        batch.draw(bulletRegion, 0, 0, viewport.getWorldWidth(), viewport.getWorldHeight());
         
         // Draw menu title
         batch.setColor(1, 1, 1, 1);
         font.getData().setScale(4);
         String menuText = "GAME MENU";
-        layout.setText(font, menuText);
-        float menuX = (viewport.getWorldWidth() - layout.width) / 2;
+        float menuX = (viewport.getWorldWidth() - hudText.label(font, menuText).width) / 2;
         float menuY = viewport.getWorldHeight() * 0.8f;
         font.draw(batch, menuText, menuX, menuY);
         
@@ -1780,289 +1303,257 @@ public class Main extends ApplicationAdapter {
         font.getData().setScale(3);
         font.setColor(Color.WHITE);
         
-        // Continue game button
-        layout.setText(font, "Continue");
-        font.draw(batch, "Continue", 
-                 continueButton.x + (continueButton.width - layout.width) / 2,
-                 continueButton.y + (continueButton.height + layout.height) / 2);
-        
-        // Back to main menu button
-        layout.setText(font, "Main Menu");
-        font.draw(batch, "Main Menu", 
-                 backToMainButton.x + (backToMainButton.width - layout.width) / 2,
-                 backToMainButton.y + (backToMainButton.height + layout.height) / 2);
-        
-        // Quit game button
-        layout.setText(font, "Quit Game");
-        font.draw(batch, "Quit Game", 
-                 inGameQuitButton.x + (inGameQuitButton.width - layout.width) / 2,
-                 inGameQuitButton.y + (inGameQuitButton.height + layout.height) / 2);
+        drawCentered(font, "Continue", continueButton);
+        drawCentered(font, "Main Menu", backToMainButton);
+        drawCentered(font, "Quit Game", inGameQuitButton);
         
         font.getData().setScale(1);
         batch.setColor(1, 1, 1, 1);
-        batch.end();
     }
 
     private void resetForNextLevel() {
-        // Clear existing enemies and bullets
-        monsters.clear();
-        bullets.clear();
-        
-        // Clear all uncollected coins
-        coins.clear();
+        // Reset the level, ducksKilled and currentLevelCoins keep accumulating
+        world.setGun(currentGun);
+        world.setSeed(seeds.nextLong());
+        world.resetLevel();
+        stepLoop.reset();
+        renderAlpha = 1f;
+        resetEffects();
+        startReplay();
         
-        // Reset boss-related states
-        isBossActive = false;
-        bossHealth = 100;
-        bossShootTimer = 0;
-        bossShootPattern = 0;
-        
-        // Reset player position
-        planeX = PLANE_WIDTH;
-        planeY = MIN_WORLD_HEIGHT / 2f - PLANE_HEIGHT / 2f;
+        // Game state related
+        gameOverTimer = 0;
+    }
+
+    private void queueAssets() {
+        TextureLoader.TextureParameter linear = new TextureLoader.TextureParameter();
+        linear.minFilter = Texture.TextureFilter.Linear;
+        linear.magFilter = Texture.TextureFilter.Linear;
         
-        // Reset lives
-        lives = 3;  // Reset lives for each level
-        isInvincible = false;
-        invincibleTimer = 0;
+        // Main menu: sprites are needed for the buttons
+        assets.queue(GameAssets.Group.MENU, "atlas/sprites.atlas", TextureAtlas.class);
+        assets.queue(GameAssets.Group.MENU, "menu_background.png", Texture.class, linear);
         
-        // Reset current score to prevent boss appearing immediately
-        currentScore = 0;
+        // Shop and water gun selection
+        assets.queue(GameAssets.Group.SHOP, "pool_background.png", Texture.class, linear);
+        assets.queue(GameAssets.Group.SHOP, "powerup.mp3", Sound.class);
         
-        // Spawn new enemies
-        spawnMonsters();
+        // Levels
+        assets.queue(GameAssets.Group.GAMEPLAY, "beach_background.png", Texture.class, linear);
+        assets.queue(GameAssets.Group.GAMEPLAY, "park_background.png", Texture.class, linear);
+        assets.queue(GameAssets.Group.GAMEPLAY, "background.png", Texture.class, linear);
+        assets.queue(GameAssets.Group.GAMEPLAY, "water_shoot.mp3", Sound.class);
+        assets.queue(GameAssets.Group.GAMEPLAY, "duck_hit.mp3", Sound.class);
         
-        // Force update background
-        renderBackground();
+        // Boss battle
+        assets.queue(GameAssets.Group.BOSS, "storm_background.png", Texture.class, linear);
+    }
+
+    // Pick up a group's assets once the asset manager has them
+    private void onAssetsLoaded(GameAssets.Group group) {
+        switch (group) {
+            case MENU:
+                // Sprites come from one atlas so gameplay draws without texture swaps
+                spriteAtlas = assets.get("atlas/sprites.atlas", TextureAtlas.class);
+                if (spriteAtlas == null) {
+                    System.err.println("Sprite atlas failed to load, drawing sprites as white boxes");
+                }
+                waterGunRegions[0] = findRegion("plane");
+                waterGunRegions[1] = findRegion("water_gun2");
+                waterGunRegions[2] = findRegion("water_gun3");
+                waterGunRegions[3] = findRegion("water_gun4");
+                planeRegion = waterGunRegions[currentGun.getId()];
+                coinRegion = findRegion("coin");
+                monsterRegion = findRegion("monster");
+                deadRegion = findRegion("dead");
+                bulletRegion = findRegion("bullet");
+                bullet2Region = findRegion("bullet2");
+                boss1Region = findRegion("boss");
+                boss2Region = findRegion("boss2");
+                boss3Region = findRegion("boss3");
+                monster2Region = findRegion("monster2");
+                livesRegion = findRegion("Lives");
+                menuBackground = assets.get("menu_background.png", Texture.class);
+                break;
+                
+            case SHOP:
+                poolBackground = assets.get("pool_background.png", Texture.class);
+                audio.setSound(powerupSound, assets.get("powerup.mp3", Sound.class));
+                break;
+                
+            case GAMEPLAY:
+                beachBackground = assets.get("beach_background.png", Texture.class);
+                parkBackground = assets.get("park_background.png", Texture.class);
+                backgroundTexture = assets.get("background.png", Texture.class);
+                
+                // Set level background mapping
+                level1Background = poolBackground;    // First level uses pool background
+                level2Background = beachBackground;   // Second level uses beach background
+                level3Background = parkBackground;    // Third level uses park background
+                
+                audio.setSound(shotSound, assets.get("water_shoot.mp3", Sound.class));
+                audio.setSound(hitSound, assets.get("duck_hit.mp3", Sound.class));
+                break;
+                
+            case BOSS:
+                stormBackground = assets.get("storm_background.png", Texture.class);
+                bossBackground = stormBackground;     // Boss battle uses storm background
+                break;
+        }
         
-        // Note: Don't reset ducksKilled and currentLevelCoins, let them accumulate
-        // Game state related
-        isGameOver = false;
-        gameOverTimer = 0;
-        monstersMovingRight = true;
-    }
-
-    private void initializeDifficulties() {
-        // Easy mode: ducks move slow, fewer number
-        easySettings = new DifficultySettings(
-            100f,  // slower movement speed
-            50f,   // slower vertical speed
-            4,     // fewer ducks
-            0.6f,  // longer shooting interval
-            1.0f   // standard water gun power
-        );
-        
-        // Normal mode: balanced difficulty
-        normalSettings = new DifficultySettings(
-            150f,  // medium movement speed
-            100f,  // medium vertical speed
-            6,     // medium number of ducks
-            0.4f,  // medium shooting interval
-            1.2f   // slightly stronger water gun power
-        );
-        
-        // Hard mode: ducks move fast, more number
-        hardSettings = new DifficultySettings(
-            200f,  // faster movement speed
-            150f,  // faster vertical speed
-            8,     // more number of ducks
-            0.3f,  // shorter shooting interval
-            1.5f   // stronger water gun power
-        );
-    }
-
-    private void loadAudio() {
-        try {
-            // Main menu music: lighthearted water park style
-            menuMusic = Gdx.audio.newMusic(Gdx.files.internal("menu_music.wav"));
-            menuMusic.setLooping(true);
-            menuMusic.setVolume(1.0f);
-            
-            // Game background music: lively summer theme
-            gameMusic = Gdx.audio.newMusic(Gdx.files.internal("game_music.mp3"));
-            gameMusic.setLooping(true);
-            gameMusic.setVolume(0.5f);
-            
-            // Boss battle music: tense and exciting music
-            bossMusic = Gdx.audio.newMusic(Gdx.files.internal("boss_music.mp3"));
-            bossMusic.setLooping(true);
-            bossMusic.setVolume(0.5f);
-            
-            // Load sound effects
-            waterShootSound = Gdx.audio.newSound(Gdx.files.internal("water_shoot.mp3"));
-            duckHitSound = Gdx.audio.newSound(Gdx.files.internal("duck_hit.mp3"));
-            powerupSound = Gdx.audio.newSound(Gdx.files.internal("powerup.mp3"));
-            
-            // Test if sound effects load successfully
-            if (waterShootSound != null) {
-                System.out.println("Water gun shooting sound effect loaded successfully");
-            }
-            if (duckHitSound != null) {
-                System.out.println("Duck hit sound effect loaded successfully");
-            }
-            if (powerupSound != null) {
-                System.out.println("Powerup sound effect loaded successfully");
-            }
-            
-        } catch (Exception e) {
-            System.err.println("Audio loading error: " + e.getMessage());
-            e.printStackTrace();
+        // New backgrounds follow the current quality, and the frame that
+        // finished loading them is not representative
+        applyBackgroundFilter();
+        quality.resetWindow();
+    }
+
+    // A sprite from the atlas, or a white box so drawing never sees null
+    // when the atlas or the region is missing
+    private TextureRegion findRegion(String name) {
+        TextureRegion region = spriteAtlas != null ? spriteAtlas.findRegion(name) : null;
+        if (region == null) {
+            if (spriteAtlas != null) System.err.println("Sprite " + name + " missing from the atlas");
+            region = new TextureRegion(whiteTexture);
         }
+        return region;
     }
 
-    private void loadTextures() {
-        try {
-            System.out.println("Loading textures...");
-            
-            // Load and set background texture
-            backgroundTexture = new Texture(Gdx.files.internal("background.png"));
-            backgroundTexture.setFilter(Texture.TextureFilter.Linear, Texture.TextureFilter.Linear);
-            System.out.println("Loaded background.png");
-            
-            // Load water gun textures
-            waterGunTextures[0] = new Texture(Gdx.files.internal("plane.png"));
-            waterGunTextures[1] = new Texture(Gdx.files.internal("water_gun2.png"));
-            waterGunTextures[2] = new Texture(Gdx.files.internal("water_gun3.png"));
-            waterGunTextures[3] = new Texture(Gdx.files.internal("water_gun4.png"));
-            System.out.println("Loaded water gun textures");
-            
-            // Set current used water gun texture
-            planeTexture = waterGunTextures[currentGun.getId()];
-            
-            // Load coin texture
-            coinTexture = new Texture(Gdx.files.internal("coin.png"));
-            System.out.println("Loaded coin.png");
-            
-            // Load and set monster texture (duck)
-            monsterTexture = new Texture(Gdx.files.internal("monster.png"));
-            monsterTexture.setFilter(Texture.TextureFilter.Linear, Texture.TextureFilter.Linear);
-            System.out.println("Loaded monster.png");
-            
-            // Set dead texture
-            deadTexture = new Texture(Gdx.files.internal("dead.png"));
-            deadTexture.setFilter(Texture.TextureFilter.Linear, Texture.TextureFilter.Linear);
-            deadRegion = new TextureRegion(deadTexture);
-            System.out.println("Loaded dead.png");
-            
-            // Load bullet texture
-            bulletTexture = new Texture(Gdx.files.internal("bullet.png"));
-            bulletTexture.setFilter(Texture.TextureFilter.Linear, Texture.TextureFilter.Linear);
-            System.out.println("Loaded bullet.png");
-            
-            bullet2Texture = new Texture(Gdx.files.internal("bullet2.png"));
-            bullet2Texture.setFilter(Texture.TextureFilter.Linear, Texture.TextureFilter.Linear);
-            System.out.println("Loaded bullet2.png");
-            
-            // Load Boss related textures
-            bossTexture = new Texture(Gdx.files.internal("boss.png"));
-            bossShootTexture = new Texture(Gdx.files.internal("boss_shoot.png"));
-            bossTexture.setFilter(Texture.TextureFilter.Linear, Texture.TextureFilter.Linear);
-            bossShootTexture.setFilter(Texture.TextureFilter.Linear, Texture.TextureFilter.Linear);
-            System.out.println("Loaded Boss related textures");
-            
-            // Load three Boss textures
-            boss1Texture = new Texture(Gdx.files.internal("boss.png"));
-            boss2Texture = new Texture(Gdx.files.internal("boss2.png"));
-            boss3Texture = new Texture(Gdx.files.internal("boss3.png"));
-            System.out.println("All textures loaded successfully");
-            
-            // Load monster2 texture
-            monster2Texture = new Texture(Gdx.files.internal("monster2.png"));
-            monster2Texture.setFilter(Texture.TextureFilter.Linear, Texture.TextureFilter.Linear);
-            System.out.println("Loaded monster2.png");
-            
-            // Load lives texture
-            livesTexture = new Texture(Gdx.files.internal("Lives.png"));
-            livesTexture.setFilter(Texture.TextureFilter.Linear, Texture.TextureFilter.Linear);
-            System.out.println("Loaded Lives.png");
-            
-        } catch (Exception e) {
-            System.err.println("Error loading textures: " + e.getMessage());
-            e.printStackTrace();
-            // Create a default white texture as a fallback
-            bulletTexture = new Texture(1, 1, Pixmap.Format.RGBA8888);
-            bullet2Texture = new Texture(1, 1, Pixmap.Format.RGBA8888);
+    // Apply the quality controller's current level
+    private void applyQuality() {
+        starfield.setVisibleCount(quality.isReduced(QualityController.Step.FEWER_STARS) ? REDUCED_STAR_COUNT : STAR_COUNT);
+        applyBackgroundFilter();
+        if (quality.isReduced(QualityController.Step.RENDER_SCALE_50)) {
+            frameScaler.setRenderScale(0.5f);
+        } else if (quality.isReduced(QualityController.Step.RENDER_SCALE_75)) {
+            frameScaler.setRenderScale(0.75f);
+        } else {
+            frameScaler.setRenderScale(1f);
+        }
+    }
+
+    private void applyBackgroundFilter() {
+        Texture.TextureFilter filter = quality.isReduced(QualityController.Step.NEAREST_BACKGROUNDS)
+            ? Texture.TextureFilter.Nearest : Texture.TextureFilter.Linear;
+        Texture[] backgrounds = {menuBackground, poolBackground, beachBackground, parkBackground, stormBackground, backgroundTexture};
+        for (Texture background : backgrounds) {
+            if (background != null) background.setFilter(filter, filter);
         }
     }
 
+    // Switch to state, going through the loading screen if its assets are not in yet
+    private void enterState(GameState state, GameAssets.Group required) {
+        if (assets.isLoaded(required)) {
+            gameState = state;
+        } else {
+            stateAfterLoading = state;
+            loadingGroup = required;
+            gameState = GameState.LOADING;
+        }
+    }
+
+    private static Texture createWhiteTexture() {
+        Pixmap pixmap = new Pixmap(1, 1, Pixmap.Format.RGBA8888);
+        pixmap.setColor(Color.WHITE);
+        pixmap.fill();
+        Texture texture = new Texture(pixmap);
+        pixmap.dispose();
+        return texture;
+    }
+
+    private void renderLoading() {
+        float progress = assets.getProgress(loadingGroup);
+        float barWidth = viewport.getWorldWidth() * 0.5f;
+        float barHeight = 20;
+        float barX = (viewport.getWorldWidth() - barWidth) / 2;
+        float barY = viewport.getWorldHeight() * 0.4f;
+        
+        // Bar background (gray), then loaded part (white)
+        batch.setColor(0.3f, 0.3f, 0.3f, 1f);
+        batch.draw(whiteTexture, barX, barY, barWidth, barHeight);
+        batch.setColor(1f, 1f, 1f, 1f);
+        batch.draw(whiteTexture, barX, barY, barWidth * progress, barHeight);
+        
+        font.setColor(Color.WHITE);
+        float textWidth = loadingText.set((int)(progress * 100)).layout(font).width;
+        font.draw(batch, loadingText.text(), (viewport.getWorldWidth() - textWidth) / 2, barY + barHeight + 40);
+    }
+
+    // The first layer of the frame's batch pass, and the only place
+    // backgrounds are drawn. Textures still loading are skipped
     private void renderBackground() {
         try {
-            batch.begin();
             switch (gameState) {
                 case MENU:
-                    if (menuBackground != null) {
-                        batch.draw(menuBackground, 0, 0, viewport.getWorldWidth(), viewport.getWorldHeight());
-                    }
+                case SHOP:
+                    drawBackground(menuBackground);
+                    break;
+                case GUN_SELECT:
+                    drawBackground(poolBackground);
                     break;
                 case PLAYING:
                 case PAUSED:
                 case IN_GAME_MENU:
-                    if (isBossActive && bossBackground != null) {
-                        batch.draw(bossBackground, 0, 0, viewport.getWorldWidth(), viewport.getWorldHeight());
+                    if (world.isBossActive && bossBackground != null) {
+                        drawBackground(bossBackground);
                     } else {
-                        Texture currentBackground = null;
-                        switch (currentDifficulty) {
-                            case EASY:
-                                currentBackground = level1Background;
-                                break;
-                            case NORMAL:
-                                currentBackground = level2Background;
-                                break;
-                            case HARD:
-                                currentBackground = level3Background;
-                                break;
-                            default:
-                                currentBackground = level1Background;
-                                break;
-                        }
-                        if (currentBackground != null) {
-                            batch.draw(currentBackground, 0, 0, viewport.getWorldWidth(), viewport.getWorldHeight());
-                        }
+                        drawBackground(getLevelBackground());
                     }
                     break;
+                case GAME_OVER:
+                case LEVEL_COMPLETE:
+                    drawBackground(getLevelBackground());
+                    break;
                 case GAME_COMPLETE:
-                    if (menuBackground != null) {
-                        batch.draw(menuBackground, 0, 0, viewport.getWorldWidth(), viewport.getWorldHeight());
-                    }
+                    drawBackground(backgroundTexture);
+                    break;
+                default:
                     break;
             }
-            batch.end();
         } catch (Exception e) {
             System.err.println("Error rendering background: " + e.getMessage());
             e.printStackTrace();
         }
     }
 
-    private void updateGameMusic() {
+    private Texture getLevelBackground() {
+        switch (currentDifficulty) {
+            case NORMAL:
+                return level2Background;
+            case HARD:
+                return level3Background;
+            case EASY:
+            default:
+                return level1Background;
+        }
+    }
+
+    private void drawBackground(Texture background) {
+        if (background != null) {
+            batch.draw(background, 0, 0, viewport.getWorldWidth(), viewport.getWorldHeight());
+        }
+    }
+
+    // Pick the track for the current state. Asking for the track that is
+    // already playing costs nothing, so only state and boss transitions reach
+    // the backend; screens without their own music keep what is playing
+    private void updateMusic() {
         switch (gameState) {
             case MENU:
-                if (!menuMusic.isPlaying()) {
-                    gameMusic.stop();
-                    bossMusic.stop();
-                    menuMusic.play();
-                }
+                music.play(MENU_MUSIC, MENU_MUSIC_VOLUME);
                 break;
             case PLAYING:
-                if (isBossActive) {
-                    if (!bossMusic.isPlaying()) {
-                        menuMusic.stop();
-                        gameMusic.stop();
-                        bossMusic.play();
-                    }
+                if (world.isBossActive) {
+                    music.play(BOSS_MUSIC, BOSS_MUSIC_VOLUME);
                 } else {
-                    if (!gameMusic.isPlaying()) {
-                        menuMusic.stop();
-                        bossMusic.stop();
-                        gameMusic.play();
-                    }
+                    music.play(GAME_MUSIC, GAME_MUSIC_VOLUME);
                 }
                 break;
         }
     }
 
     private void initializeButtons() {
-        float centerX = MIN_WORLD_WIDTH / 2f - BUTTON_WIDTH / 2f;
-        float startY = MIN_WORLD_HEIGHT / 2f;
+        float centerX = WORLD_WIDTH / 2f - BUTTON_WIDTH / 2f;
+        float startY = WORLD_HEIGHT / 2f;
         
         // Main menu buttons
         startGameButton = new Rectangle(centerX, startY + 60, BUTTON_WIDTH, BUTTON_HEIGHT);
@@ -2081,32 +1572,16 @@ public class Main extends ApplicationAdapter {
     }
 
     private void renderLevelComplete() {
-        batch.begin();
-        // Draw current background
-        switch (currentDifficulty) {
-            case EASY:
-                batch.draw(level1Background, 0, 0, viewport.getWorldWidth(), viewport.getWorldHeight());
-                break;
-            case NORMAL:
-                batch.draw(level2Background, 0, 0, viewport.getWorldWidth(), viewport.getWorldHeight());
-                break;
-            case HARD:
-                batch.draw(level3Background, 0, 0, viewport.getWorldWidth(), viewport.getWorldHeight());
-                break;
-        }
-        
         // Draw semi-transparent black mask
         batch.setColor(0, 0, 0, 0.7f);
-        batch.draw(bulletTexture, 0, 0, viewport.getWorldWidth(), viewport.getWorldHeight());
+        batch.draw(bulletRegion, 0, 0, viewport.getWorldWidth(), viewport.getWorldHeight());
         batch.setColor(1, 1, 1, 1);
         
         // Draw title
         font.getData().setScale(4);
         // Display correct level completion information based on current difficulty
-        String levelText = "LEVEL " + (currentDifficulty == Difficulty.EASY ? "EASY" : 
-                                     currentDifficulty == Difficulty.NORMAL ? "NORMAL" : "HARD") + " COMPLETE!";
-        layout.setText(font, levelText);
-        float levelX = (viewport.getWorldWidth() - layout.width) / 2;
+        String levelText = LEVEL_COMPLETE_TEXTS[Math.min(currentDifficulty.ordinal(), LEVEL_COMPLETE_TEXTS.length - 1)];
+        float levelX = (viewport.getWorldWidth() - hudText.label(font, levelText).width) / 2;
         float levelY = viewport.getWorldHeight() * 0.8f;
         font.draw(batch, levelText, levelX, levelY);
         
@@ -2117,35 +1592,25 @@ public class Main extends ApplicationAdapter {
         
         // Retry button
         batch.setColor(0.3f, 0.3f, 0.7f, 0.7f);
-        batch.draw(bulletTexture, retryButton.x, retryButton.y, retryButton.width, retryButton.height);
+        batch.draw(bulletRegion, retryButton.x, retryButton.y, retryButton.width, retryButton.height);
         batch.setColor(1, 1, 1, 1);
-        layout.setText(font, "Retry Level");
-        font.draw(batch, "Retry Level", 
-                 retryButton.x + (retryButton.width - layout.width) / 2,
-                 retryButton.y + (retryButton.height + layout.height) / 2);
+        drawCentered(font, "Retry Level", retryButton);
         
         // Next level button - only show on non-last level
         if (currentDifficulty != Difficulty.HARD) {
             batch.setColor(0.3f, 0.3f, 0.7f, 0.7f);
-            batch.draw(bulletTexture, nextLevelButton.x, nextLevelButton.y, nextLevelButton.width, nextLevelButton.height);
+            batch.draw(bulletRegion, nextLevelButton.x, nextLevelButton.y, nextLevelButton.width, nextLevelButton.height);
             batch.setColor(1, 1, 1, 1);
-            layout.setText(font, "Next Level");
-            font.draw(batch, "Next Level", 
-                     nextLevelButton.x + (nextLevelButton.width - layout.width) / 2,
-                     nextLevelButton.y + (nextLevelButton.height + layout.height) / 2);
+            drawCentered(font, "Next Level", nextLevelButton);
         }
         
         // Back to main menu button
         batch.setColor(0.3f, 0.3f, 0.7f, 0.7f);
-        batch.draw(bulletTexture, exitToMenuButton.x, exitToMenuButton.y, exitToMenuButton.width, exitToMenuButton.height);
+        batch.draw(bulletRegion, exitToMenuButton.x, exitToMenuButton.y, exitToMenuButton.width, exitToMenuButton.height);
         batch.setColor(1, 1, 1, 1);
-        layout.setText(font, "Back to Menu");
-        font.draw(batch, "Back to Menu", 
-                 exitToMenuButton.x + (exitToMenuButton.width - layout.width) / 2,
-                 exitToMenuButton.y + (exitToMenuButton.height + layout.height) / 2);
+        drawCentered(font, "Back to Menu", exitToMenuButton);
         
         font.getData().setScale(1);
-        batch.end();
     }
 
     private void handleLevelCompleteInput() {
@@ -2163,11 +1628,9 @@ public class Main extends ApplicationAdapter {
                 switch (currentDifficulty) {
                     case EASY:
                         currentDifficulty = Difficulty.NORMAL;
-                        currentDifficultyText = "NORMAL";
                         break;
                     case NORMAL:
                         currentDifficulty = Difficulty.HARD;
-                        currentDifficultyText = "HARD";
                         break;
                 }
                 applyDifficultySettings();
@@ -2177,79 +1640,11 @@ public class Main extends ApplicationAdapter {
                 // Back to main menu
                 gameState = GameState.MENU;
                 currentDifficulty = Difficulty.EASY;
-                currentDifficultyText = "EASY";
                 resetGame();
             }
         }
     }
 
-    private void handleBossDefeated() {
-        isBossActive = false;
-        
-        // Add reward score
-        currentScore += 500;  // Boss defeated reward 500 points
-        
-        // Add life reward
-        if (lives < MAX_LIVES) {
-            lives++;
-        }
-        
-        // Play victory sound
-        if (powerupSound != null) {
-            powerupSound.play(1.0f);
-        }
-        
-        // Switch to level complete state, but keep current difficulty unchanged
-        gameState = GameState.LEVEL_COMPLETE;
-        
-        // Save high score
-        if (currentScore > highScore) {
-            highScore = currentScore;
-            prefs.putInteger(PREF_HIGH_SCORE, highScore);
-            prefs.flush();
-        }
-    }
-
-    private void loadBackgrounds() {
-        try {
-            System.out.println("Loading background textures...");
-            
-            // Load all background textures
-            menuBackground = new Texture(Gdx.files.internal("menu_background.png"));
-            System.out.println("Loaded menu_background.png");
-            
-            poolBackground = new Texture(Gdx.files.internal("pool_background.png"));
-            System.out.println("Loaded pool_background.png");
-            
-            beachBackground = new Texture(Gdx.files.internal("beach_background.png"));
-            System.out.println("Loaded beach_background.png");
-            
-            parkBackground = new Texture(Gdx.files.internal("park_background.png"));
-            System.out.println("Loaded park_background.png");
-            
-            stormBackground = new Texture(Gdx.files.internal("storm_background.png"));
-            System.out.println("Loaded storm_background.png");
-            
-            // Set background texture filtering
-            menuBackground.setFilter(Texture.TextureFilter.Linear, Texture.TextureFilter.Linear);
-            poolBackground.setFilter(Texture.TextureFilter.Linear, Texture.TextureFilter.Linear);
-            beachBackground.setFilter(Texture.TextureFilter.Linear, Texture.TextureFilter.Linear);
-            parkBackground.setFilter(Texture.TextureFilter.Linear, Texture.TextureFilter.Linear);
-            stormBackground.setFilter(Texture.TextureFilter.Linear, Texture.TextureFilter.Linear);
-            
-            // Set level background mapping
-            level1Background = poolBackground;    // First level uses pool background
-            level2Background = beachBackground;   // Second level uses beach background
-            level3Background = parkBackground;    // Third level uses park background
-            bossBackground = stormBackground;     // Boss battle uses storm background
-            
-            System.out.println("All background textures loaded successfully");
-        } catch (Exception e) {
-            System.err.println("Error loading background textures: " + e.getMessage());
-            e.printStackTrace();
-        }
-    }
-
     private void loadFonts() {
         try {
             // Use default font
@@ -2269,33 +1664,23 @@ public class Main extends ApplicationAdapter {
     }
 
     private void renderShop() {
-        batch.begin();
-        // Draw background
-        batch.draw(menuBackground, 0, 0, viewport.getWorldWidth(), viewport.getWorldHeight());
-        
         // Draw title
         titleFont.setColor(Color.BLACK);
         String shopTitle = "Water Gun Shop";
-        layout.setText(titleFont, shopTitle);
-        float titleX = (viewport.getWorldWidth() - layout.width) / 2;
+        float titleX = (viewport.getWorldWidth() - hudText.label(titleFont, shopTitle).width) / 2;
         float titleY = viewport.getWorldHeight() * 0.9f;
         titleFont.draw(batch, shopTitle, titleX, titleY);
         
         // Draw total coins number
         font.setColor(Color.BLACK);
-        String coinsText = "Your Coins: " + totalCoins;
-        layout.setText(font, coinsText);
-        float coinsX = viewport.getWorldWidth() - layout.width - 20;
+        GlyphLayout coinsLayout = shopCoinsText.set(totalCoins).layout(font);
+        float coinsX = viewport.getWorldWidth() - coinsLayout.width - 20;
         float coinsY = viewport.getWorldHeight() - 20;
-        font.draw(batch, coinsText, coinsX, coinsY);
+        font.draw(batch, shopCoinsText.text(), coinsX, coinsY);
         
         // Draw back button
         font.setColor(Color.BLACK);
-        String backText = "Back";
-        layout.setText(font, backText);
-        font.draw(batch, backText, 
-                 backFromShopButton.x + (backFromShopButton.width - layout.width) / 2,
-                 backFromShopButton.y + (backFromShopButton.height + layout.height) / 2);
+        drawCentered(font, "Back", backFromShopButton);
         
         // Draw each water gun option
         for (int i = 0; i < WaterGunType.values().length; i++) {
@@ -2304,28 +1689,32 @@ public class Main extends ApplicationAdapter {
             
             // Draw water gun icon
             batch.setColor(1, 1, 1, 1);
-            batch.draw(waterGunTextures[i], 
+            batch.draw(waterGunRegions[i], 
                       button.x + 10, 
-                      button.y + (button.height - PLANE_HEIGHT) / 2,
-                      PLANE_WIDTH, PLANE_HEIGHT);
+                      button.y + (button.height - World.PLANE_HEIGHT) / 2,
+                      World.PLANE_WIDTH, World.PLANE_HEIGHT);
             
             // Draw water gun name and price
             font.setColor(Color.BLACK);
-            String gunInfo = gun.getName();
-            if (!isUnlocked(gun)) {
-                gunInfo += " - Price: " + gun.getPrice() + " coins";
+            CharSequence gunInfo;
+            GlyphLayout gunInfoLayout;
+            if (isUnlocked(gun)) {
+                gunInfo = gun.getName();
+                gunInfoLayout = hudText.label(font, gun.getName());
+            } else {
+                gunInfoLayout = shopPriceTexts[i].set(gun.getPrice()).layout(font);
+                gunInfo = shopPriceTexts[i].text();
             }
-            layout.setText(font, gunInfo);
             font.draw(batch, gunInfo, 
-                     button.x + PLANE_WIDTH + 30,
-                     button.y + button.height - (button.height - layout.height) / 2);
+                     button.x + World.PLANE_WIDTH + 30,
+                     button.y + button.height - (button.height - gunInfoLayout.height) / 2);
 
             // If water gun is unlocked, draw level box and upgrade cost
             if (isUnlocked(gun)) {
                 float boxWidth = 30;
                 float boxHeight = 10;
                 float boxSpacing = 5;
-                float startX = button.x + PLANE_WIDTH + 30;
+                float startX = button.x + World.PLANE_WIDTH + 30;
                 float startY = button.y + 20;
 
                 // Draw three level boxes
@@ -2337,7 +1726,7 @@ public class Main extends ApplicationAdapter {
                         // Not reached level use gray
                         batch.setColor(0.7f, 0.7f, 0.7f, 1f);
                     }
-                    batch.draw(bulletTexture, 
+                    batch.draw(bulletRegion, 
                              startX + (level-1) * (boxWidth + boxSpacing), 
                              startY, 
                              boxWidth, boxHeight);
@@ -2346,9 +1735,7 @@ public class Main extends ApplicationAdapter {
                 // If can upgrade, show upgrade cost
                 if (gun.canUpgrade()) {
                     font.setColor(Color.BLACK);
-                    String upgradeInfo = "Upgrade: " + gun.getUpgradePrice() + " coins";
-                    layout.setText(font, upgradeInfo);
-                    font.draw(batch, upgradeInfo,
+                    font.draw(batch, upgradeTexts[i].set(gun.getUpgradePrice()).text(),
                              startX + 3 * (boxWidth + boxSpacing) + 10,
                              startY + boxHeight);
                 }
@@ -2356,7 +1743,6 @@ public class Main extends ApplicationAdapter {
         }
         
         batch.setColor(1, 1, 1, 1); // Reset color
-        batch.end();
     }
 
     private boolean isUnlocked(WaterGunType gun) {
@@ -2401,14 +1787,12 @@ public class Main extends ApplicationAdapter {
                                 prefs.flush();
                                 
                                 // Play upgrade sound
-                                if (powerupSound != null) {
-                                    powerupSound.play(0.5f);
-                                }
+                                audio.play(powerupSound, 0.5f);
                             }
                         }
                         // Select this water gun
                         currentGun = gun;
-                        planeTexture = waterGunTextures[gun.getId()];
+                        planeRegion = waterGunRegions[gun.getId()];
                         prefs.putInteger("currentGun", gun.getId());
                         prefs.flush();
                     } else if (totalCoins >= gun.getPrice()) {
@@ -2416,7 +1800,7 @@ public class Main extends ApplicationAdapter {
                         totalCoins -= gun.getPrice();
                         unlockedGuns.add(gun);
                         currentGun = gun;
-                        planeTexture = waterGunTextures[gun.getId()];
+                        planeRegion = waterGunRegions[gun.getId()];
                         
                         // Save purchase data
                         StringBuilder unlockedGunsStr = new StringBuilder();
@@ -2432,9 +1816,7 @@ public class Main extends ApplicationAdapter {
                         prefs.flush();
                         
                         // 播放购买音效
-                        if (powerupSound != null) {
-                            powerupSound.play(0.5f);
-                        }
+                        audio.play(powerupSound, 0.5f);
                     }
                     break;
                 }
@@ -2442,56 +1824,13 @@ public class Main extends ApplicationAdapter {
         }
     }
 
-    private void updateCoins(float deltaTime) {
-        // Update existing coins
-        for (int i = coins.size - 1; i >= 0; i--) {
-            Coin coin = coins.get(i);
-            if (coin.active) {
-                coin.y += coin.velocityY * deltaTime;
-                
-                // Check if collected
-                Rectangle coinRect = new Rectangle(coin.x, coin.y, COIN_WIDTH, COIN_HEIGHT);
-                if (planeRect.overlaps(coinRect)) {
-                    coin.active = false;
-                    totalCoins++;
-                    currentLevelCoins++;  // Increase current level coin count
-                    prefs.putInteger("totalCoins", totalCoins);
-                    prefs.flush();
-                    
-                    // Play coin collection sound, reduce volume
-                    if (powerupSound != null) {
-                        long soundId = powerupSound.play(0.1f);  // Reduce volume to 30%
-                        powerupSound.setPitch(soundId, 1.0f);
-                        powerupSound.setVolume(soundId, 0.1f);
-                    }
-                }
-                
-                // Check if out of screen
-                if (coin.y < -COIN_HEIGHT) {
-                    coin.active = false;
-                }
-            }
-        }
-        
-        // Remove inactive coins
-        for (int i = coins.size - 1; i >= 0; i--) {
-            if (!coins.get(i).active) {
-                coins.removeIndex(i);
-            }
-        }
-    }
-
     private void renderGunSelect() {
-        batch.begin();
-        // Draw background
-        batch.draw(poolBackground, 0, 0, viewport.getWorldWidth(), viewport.getWorldHeight());
-        
         // Draw top water drop indicator
         float indicatorSize = 40;
         float startX = viewport.getWorldWidth() / 2 - (3 * indicatorSize);
         float topY = viewport.getWorldHeight() - 50;
         for (int i = 0; i < 6; i++) {
-            batch.draw(bulletTexture, startX + (i * indicatorSize), topY, indicatorSize, indicatorSize);
+            batch.draw(bulletRegion, startX + (i * indicatorSize), topY, indicatorSize, indicatorSize);
         }
         
         // Arrange four water guns horizontally
@@ -2506,7 +1845,7 @@ public class Main extends ApplicationAdapter {
             // If current selected water gun and unlocked, draw water drop background
             if (currentGun == gun && isUnlocked(gun)) {
                 float dropSize = 140;
-                batch.draw(bulletTexture, 
+                batch.draw(bulletRegion, 
                           gunX - dropSize/2,
                           gunY - dropSize/2,
                           dropSize, dropSize);
@@ -2516,7 +1855,7 @@ public class Main extends ApplicationAdapter {
             if (!isUnlocked(gun)) {
                 batch.setColor(0.5f, 0.5f, 0.5f, 0.5f); // Gray semi-transparent
             }
-            batch.draw(waterGunTextures[i], 
+            batch.draw(waterGunRegions[i], 
                       gunX - gunSize/2, 
                       gunY - gunSize/2, 
                       gunSize, gunSize);
@@ -2525,18 +1864,16 @@ public class Main extends ApplicationAdapter {
             // Draw water gun name
             font.setColor(Color.BLACK);
             String name = gun.getName();
-            layout.setText(font, name);
             font.draw(batch, name, 
-                     gunX - layout.width/2,
+                     gunX - hudText.label(font, name).width/2,
                      gunY - gunSize/2 - 20);
             
             // Show shop related information
             if (!isUnlocked(gun)) {
                 // Unlocked show price
-                String priceText = "Price: " + gun.getPrice() + " coins";
-                layout.setText(font, priceText);
-                font.draw(batch, priceText,
-                         gunX - layout.width/2,
+                HudText.Counter priceText = selectPriceTexts[i].set(gun.getPrice());
+                font.draw(batch, priceText.text(),
+                         gunX - priceText.layout(font).width/2,
                          gunY - gunSize/2 - 50);
             } else {
                 // Unlocked show level
@@ -2549,7 +1886,7 @@ public class Main extends ApplicationAdapter {
                 for (int level = 1; level <= 3; level++) {
                     if (level <= gun.getLevel()) {
                         // Reached level use water drop texture
-                        batch.draw(bulletTexture, 
+                        batch.draw(bulletRegion, 
                                  barX + (level-1) * (barWidth + 5),
                                  barY, 
                                  barWidth, barHeight);
@@ -2558,10 +1895,9 @@ public class Main extends ApplicationAdapter {
                 
                 // If can upgrade, show upgrade cost
                 if (gun.canUpgrade()) {
-                    String upgradeText = "Upgrade: " + gun.getUpgradePrice() + " coins";
-                    layout.setText(font, upgradeText);
-                    font.draw(batch, upgradeText,
-                             gunX - layout.width/2,
+                    HudText.Counter upgradeText = upgradeTexts[i].set(gun.getUpgradePrice());
+                    font.draw(batch, upgradeText.text(),
+                             gunX - upgradeText.layout(font).width/2,
                              barY - 20);
                 }
             }
@@ -2570,24 +1906,21 @@ public class Main extends ApplicationAdapter {
         // Draw select button
         float buttonY = viewport.getWorldHeight() * 0.3f;
         String selectText = "Select";
-        layout.setText(font, selectText);
-        float buttonX = (viewport.getWorldWidth() - layout.width) / 2;
+        GlyphLayout selectLayout = hudText.label(font, selectText);
+        float buttonX = (viewport.getWorldWidth() - selectLayout.width) / 2;
         
-        batch.draw(bulletTexture, 
+        batch.draw(bulletRegion, 
                   buttonX - 20, buttonY - 10,
-                  layout.width + 40, layout.height + 20);
+                  selectLayout.width + 40, selectLayout.height + 20);
                   
         font.setColor(Color.BLACK);
-        font.draw(batch, selectText, buttonX, buttonY + layout.height);
+        font.draw(batch, selectText, buttonX, buttonY + selectLayout.height);
         
         // Draw description text
         String description = "Standard Water Gun: Balanced speed and power";
-        layout.setText(font, description);
         font.draw(batch, description,
-                 (viewport.getWorldWidth() - layout.width) / 2,
+                 (viewport.getWorldWidth() - hudText.label(font, description).width) / 2,
                  buttonY - 40);
-        
-        batch.end();
     }
 
     private void handleGunSelect() {
@@ -2612,56 +1945,42 @@ public class Main extends ApplicationAdapter {
                     // Only unlocked water guns can be selected
                     if (isUnlocked(gun)) {
                         currentGun = gun;
-                        planeTexture = waterGunTextures[i];
+                        planeRegion = waterGunRegions[i];
                     }
                 }
             }
             
             // Check if select button is clicked
             float buttonY = viewport.getWorldHeight() * 0.3f;
-            String selectText = "Select";
-            layout.setText(font, selectText);
-            float buttonX = (viewport.getWorldWidth() - layout.width) / 2;
+            GlyphLayout selectLayout = hudText.label(font, "Select");
+            float buttonX = (viewport.getWorldWidth() - selectLayout.width) / 2;
             Rectangle selectButton = new Rectangle(
                 buttonX - 20, buttonY - 10,
-                layout.width + 40, layout.height + 20
+                selectLayout.width + 40, selectLayout.height + 20
             );
             
             if (selectButton.contains(worldCoords.x, worldCoords.y)) {
                 // Start game, but keep current difficulty settings
-                gameState = GameState.PLAYING;
-                resetForNextLevel(); // Use resetForNextLevel instead of resetGame
+                // Difficulty first, the first wave is spawned by the reset
                 applyDifficultySettings(); // Ensure current difficulty settings are applied
+                resetForNextLevel(); // Use resetForNextLevel instead of resetGame
+                // Boss assets have to be in before the boss can show up
+                enterState(GameState.PLAYING, GameAssets.Group.BOSS);
             }
         }
     }
 
     private void renderGameOver() {
-        batch.begin();
-        // Draw current background
-        switch (currentDifficulty) {
-            case EASY:
-                batch.draw(level1Background, 0, 0, viewport.getWorldWidth(), viewport.getWorldHeight());
-                break;
-            case NORMAL:
-                batch.draw(level2Background, 0, 0, viewport.getWorldWidth(), viewport.getWorldHeight());
-                break;
-            case HARD:
-                batch.draw(level3Background, 0, 0, viewport.getWorldWidth(), viewport.getWorldHeight());
-                break;
-        }
-        
         // Draw semi-transparent black mask
         batch.setColor(0, 0, 0, 0.7f);
-        batch.draw(bulletTexture, 0, 0, viewport.getWorldWidth(), viewport.getWorldHeight());
+        batch.draw(bulletRegion, 0, 0, viewport.getWorldWidth(), viewport.getWorldHeight());
         batch.setColor(1, 1, 1, 1);
         
         // Draw GAME OVER text
         font.setColor(1, 0, 0, 1);  // Red
         font.getData().setScale(4);
         String gameOverText = "GAME OVER";
-        layout.setText(font, gameOverText);
-        float gameOverX = (viewport.getWorldWidth() - layout.width) / 2;
+        float gameOverX = (viewport.getWorldWidth() - hudText.label(font, gameOverText).width) / 2;
         float gameOverY = viewport.getWorldHeight() * 0.7f;
         font.draw(batch, gameOverText, gameOverX, gameOverY);
         
@@ -2670,63 +1989,41 @@ public class Main extends ApplicationAdapter {
         font.setColor(1, 1, 1, 1);  // White
         
         // Show kills
-        String killsText = "Ducks Shot: " + ducksKilled;
-        layout.setText(font, killsText);
-        float killsX = (viewport.getWorldWidth() - layout.width) / 2;
+        float killsX = (viewport.getWorldWidth() - killsText.set(world.ducksKilled).layout(font).width) / 2;
         float killsY = viewport.getWorldHeight() * 0.5f;
-        font.draw(batch, killsText, killsX, killsY);
+        font.draw(batch, killsText.text(), killsX, killsY);
         
         // Show coins number
-        String coinsText = "Coins Collected: " + currentLevelCoins;
-        layout.setText(font, coinsText);
-        float coinsX = (viewport.getWorldWidth() - layout.width) / 2;
+        float coinsX = (viewport.getWorldWidth() - collectedText.set(world.currentLevelCoins).layout(font).width) / 2;
         float coinsY = viewport.getWorldHeight() * 0.4f;
-        font.draw(batch, coinsText, coinsX, coinsY);
+        font.draw(batch, collectedText.text(), coinsX, coinsY);
         
         // Show tip text
         String tipText = "Press SPACE to return to menu";
-        layout.setText(font, tipText);
-        float tipX = (viewport.getWorldWidth() - layout.width) / 2;
+        float tipX = (viewport.getWorldWidth() - hudText.label(font, tipText).width) / 2;
         float tipY = viewport.getWorldHeight() * 0.2f;
         font.draw(batch, tipText, tipX, tipY);
         
         font.getData().setScale(1);
-        batch.end();
     }
 
     @Override
     public void dispose() {
+        // Blocks until the save is on disk
+        if (prefs != null) prefs.dispose();
+        saveReplay();
+
         if (batch != null) batch.dispose();
-        if (backgroundTexture != null) backgroundTexture.dispose();
-        if (planeTexture != null) planeTexture.dispose();
-        if (monsterTexture != null) monsterTexture.dispose();
-        if (deadTexture != null) deadTexture.dispose();
-        if (bulletTexture != null) bulletTexture.dispose();
-        if (bullet2Texture != null) bullet2Texture.dispose();
-        if (bossTexture != null) bossTexture.dispose();
-        if (bossShootTexture != null) bossShootTexture.dispose();
-        
-        // Release music resources
-        if (menuMusic != null) menuMusic.dispose();
-        if (gameMusic != null) gameMusic.dispose();
-        if (bossMusic != null) bossMusic.dispose();
-        
-        // Release sound resources
-        if (waterShootSound != null) waterShootSound.dispose();
-        if (duckHitSound != null) duckHitSound.dispose();
-        if (powerupSound != null) powerupSound.dispose();
-        
-        // Release background textures
-        if (menuBackground != null) menuBackground.dispose();
-        if (poolBackground != null) poolBackground.dispose();
-        if (beachBackground != null) beachBackground.dispose();
-        if (parkBackground != null) parkBackground.dispose();
-        if (stormBackground != null) stormBackground.dispose();
+        if (starfield != null) starfield.dispose();
+        frameScaler.dispose();
+        music.dispose();
+        
+        // Releases every texture and sound loaded through it
+        if (assets != null) assets.dispose();
+        if (whiteTexture != null) whiteTexture.dispose();
         
         // Release font resources
         if (font != null) font.dispose();
         if (titleFont != null) titleFont.dispose();
-        if (monster2Texture != null) monster2Texture.dispose();
-        if (livesTexture != null) livesTexture.dispose();
     }
 }
@@ -0,0 +1,34 @@
+package com.xc.mygdxgame;
+
+import com.badlogic.gdx.utils.Pool;
+
+// Monster class, recycled through MonsterStore
+class Monster implements Pool.Poolable {
+    float x;
+    float y;
+    float prevX;  // Position at the previous simulation step, used for interpolation
+    float prevY;
+    boolean active;
+    float shootTimer;
+    float shootInterval;
+    MonsterType type;
+    int health = 3;  // Add health attribute, initial value is 3
+    
+    public void init(float x, float y, MonsterType type) {
+        this.x = x;
+        this.y = y;
+        this.prevX = x;
+        this.prevY = y;
+        this.active = true;
+        this.shootTimer = 0;  // Drawn from the world's seeded streams after spawning
+        this.shootInterval = 1.5f;
+        this.type = type;
+        this.health = 3;  // Initialize health
+    }
+
+    @Override
+    public void reset() {
+        active = false;
+        type = null;
+    }
+}
@@ -0,0 +1,85 @@
+package com.xc.mygdxgame;
+
+import com.badlogic.gdx.utils.Pool;
+
+// Live monsters kept contiguous in spawn order, backed by a pool.
+// Killed or escaped monsters are only marked inactive during a step and are
+// returned to the pool by compact(), so iteration cost follows the number of
+// live ducks instead of everything spawned since the level began.
+public final class MonsterStore {
+    private final Pool<Monster> pool;
+    Monster[] items;
+    int size;
+
+    // Statistics
+    private int peakLive;
+    private int totalSpawned;
+
+    public MonsterStore(int capacity) {
+        items = new Monster[Math.max(1, capacity)];
+        pool = new Pool<Monster>(capacity) {
+            @Override
+            protected Monster newObject() {
+                return new Monster();
+            }
+        };
+    }
+
+    // Take a monster from the pool and add it to the live list
+    public Monster spawn(float x, float y, MonsterType type) {
+        Monster monster = pool.obtain();
+        monster.init(x, y, type);
+        if (size == items.length) {
+            Monster[] newItems = new Monster[size * 2];
+            System.arraycopy(items, 0, newItems, 0, size);
+            items = newItems;
+        }
+        items[size++] = monster;
+        totalSpawned++;
+        if (size > peakLive) peakLive = size;
+        return monster;
+    }
+
+    public Monster get(int index) {
+        return items[index];
+    }
+
+    // Return inactive monsters to the pool, keeping the live ones in order
+    public void compact() {
+        int write = 0;
+        for (int read = 0; read < size; read++) {
+            Monster monster = items[read];
+            if (monster.active) {
+                items[write++] = monster;
+            } else {
+                pool.free(monster);
+            }
+        }
+        for (int i = write; i < size; i++) {
+            items[i] = null;
+        }
+        size = write;
+    }
+
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            pool.free(items[i]);
+            items[i] = null;
+        }
+        size = 0;
+    }
+
+    // Highest number of monsters alive at the same time
+    public int getPeakLive() {
+        return peakLive;
+    }
+
+    // Highest number of monsters sitting unused in the pool
+    public int getPeakFree() {
+        return pool.peak;
+    }
+
+    public int getTotalSpawned() {
+        return totalSpawned;
+    }
+}
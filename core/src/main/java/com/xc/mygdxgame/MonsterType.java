@@ -0,0 +1,18 @@
+package com.xc.mygdxgame;
+
+// Monster type enumeration
+enum MonsterType {
+    NORMAL(0xFF0000),    // Red
+    FAST(0x00FF00),      // Green
+    TOUGH(0x0000FF);     // Blue
+
+    private final int color;
+    
+    MonsterType(int color) {
+        this.color = color;
+    }
+    
+    public int getColor() {
+        return color;
+    }
+}
@@ -0,0 +1,126 @@
+package com.xc.mygdxgame;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.audio.Music;
+import com.badlogic.gdx.utils.Disposable;
+
+// Plays one looping music track at a time and crossfades when it changes.
+// A track's stream is opened when it is asked for and disposed once it has
+// faded out, so at most two decoders are open, and only during a crossfade.
+// Nothing is polled: the backend is only called on a change, and each frame
+// of a crossfade sets the two volumes.
+public final class MusicController implements Disposable {
+    private static final float CROSSFADE_TIME = 1.0f;  // Seconds
+
+    private Music current;
+    private String currentFile;
+    private float currentVolume;
+    private Music fading;  // Previous track, fading out
+    private String fadingFile;
+    private float fadingVolume;
+    private float fade = 1f;  // Crossfade progress, 1 when there is none
+    private boolean paused;
+
+    // Crossfade to fileName at volume, looping. Nothing happens if it is
+    // already the current track; null fades out to silence
+    public void play(String fileName, float volume) {
+        if (fileName == null ? currentFile == null : fileName.equals(currentFile)) return;
+
+        if (fileName != null && fileName.equals(fadingFile)) {
+            // Going back before the crossfade finished, reverse it
+            Music music = fading;
+            fading = current;
+            fadingFile = currentFile;
+            fadingVolume = currentVolume;
+            current = music;
+            currentFile = fileName;
+            currentVolume = volume;
+            fade = 1f - fade;
+            applyVolumes();
+            return;
+        }
+
+        // A third track, the one fading out has to go now
+        disposeFading();
+        fading = current;
+        fadingFile = currentFile;
+        fadingVolume = currentVolume * fade;
+        currentFile = fileName;
+        currentVolume = volume;
+        current = fileName != null ? open(fileName) : null;
+        fade = 0f;
+        if (current != null && !paused) current.play();
+        applyVolumes();
+    }
+
+    public void stop() {
+        play(null, 0f);
+    }
+
+    // Advance a crossfade; does nothing otherwise
+    public void update(float deltaTime) {
+        if (fade >= 1f || paused) return;
+        fade = Math.min(1f, fade + deltaTime / CROSSFADE_TIME);
+        applyVolumes();
+        if (fade >= 1f) disposeFading();
+    }
+
+    // Whether a crossfade is running and needs update() every frame
+    public boolean isFading() {
+        return fade < 1f;
+    }
+
+    // Pause everything, e.g. while the game is in the background
+    public void pause() {
+        if (paused) return;
+        paused = true;
+        if (current != null) current.pause();
+        if (fading != null) fading.pause();
+    }
+
+    public void resume() {
+        if (!paused) return;
+        paused = false;
+        if (current != null) current.play();
+        if (fading != null) fading.play();
+    }
+
+    private Music open(String fileName) {
+        try {
+            Music music = Gdx.audio.newMusic(Gdx.files.internal(fileName));
+            music.setLooping(true);
+            music.setVolume(0f);
+            return music;
+        } catch (Exception e) {
+            // Play on without music
+            System.err.println("Error opening music " + fileName + ": " + e.getMessage());
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    private void applyVolumes() {
+        if (current != null) current.setVolume(currentVolume * fade);
+        if (fading != null) fading.setVolume(fadingVolume * (1f - fade));
+    }
+
+    private void disposeFading() {
+        if (fading != null) {
+            fading.stop();
+            fading.dispose();
+            fading = null;
+        }
+        fadingFile = null;
+    }
+
+    @Override
+    public void dispose() {
+        disposeFading();
+        if (current != null) {
+            current.stop();
+            current.dispose();
+            current = null;
+        }
+        currentFile = null;
+    }
+}
@@ -0,0 +1,50 @@
+package com.xc.mygdxgame;
+
+import com.badlogic.gdx.utils.IntArray;
+
+// Keeps the k closest entries seen so far, sorted by squared distance.
+// Shared by the SpatialIndex implementations; k is small so insertion is cheap.
+final class NearestCollector {
+    private int[] ids = new int[8];
+    private float[] distances = new float[8];
+    private int limit;
+    private float maxDistanceSq;
+    int count;
+
+    void reset(int k, float maxDistanceSq) {
+        if (k > ids.length) {
+            ids = new int[k];
+            distances = new float[k];
+        }
+        this.limit = k;
+        this.maxDistanceSq = maxDistanceSq;
+        this.count = 0;
+    }
+
+    // Squared distance an entry has to beat to be kept
+    float bound() {
+        return count < limit ? maxDistanceSq : distances[count - 1];
+    }
+
+    void offer(int id, float distanceSq) {
+        if (limit == 0 || distanceSq > bound() || (count == limit && distanceSq == bound())) return;
+
+        int i = count < limit ? count++ : count - 1;
+        while (i > 0 && distances[i - 1] > distanceSq) {
+            ids[i] = ids[i - 1];
+            distances[i] = distances[i - 1];
+            i--;
+        }
+        ids[i] = id;
+        distances[i] = distanceSq;
+    }
+
+    int first() {
+        return count == 0 ? -1 : ids[0];
+    }
+
+    void copyTo(IntArray out) {
+        out.clear();
+        out.addAll(ids, 0, count);
+    }
+}
@@ -0,0 +1,197 @@
+package com.xc.mygdxgame;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.profiling.GLProfiler;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+
+// Debug overlay toggled with F3: frame time graphs, per-phase timings, batch
+// and GL counters, entity counts and memory. Profiling hooks only run while it
+// is visible; GLProfiler wraps every GL call, so it is switched off with it.
+public final class PerfOverlay {
+    private static final float WIDTH = 300;
+    private static final float GRAPH_HEIGHT = 60;
+    private static final float GRAPH_MAX_MS = 33.3f;  // Top of the graph, two 60 Hz frames
+    private static final float BUDGET_MS = 1000f / 60f;
+    private static final float LINE_HEIGHT = 16;
+
+    private final FrameProfiler profiler;
+    private final World world;
+    private final RenderQueue queue;
+    private final AudioDispatcher audio;
+    private final BitmapFont font;
+    private final Texture white;
+    private final GLProfiler glProfiler;
+    private final List<GarbageCollectorMXBean> collectors = ManagementFactory.getGarbageCollectorMXBeans();
+    private final StringBuilder text = new StringBuilder();
+    private boolean visible;
+
+    // Counters for the last finished frame
+    private int lastTotalRenderCalls;
+    private int renderCalls;
+    private int textureBindings;
+    private int drawCalls;
+    private int shaderSwitches;
+
+    // The sources are read on every render while visible, so they have to
+    // live as long as the overlay
+    public PerfOverlay(FrameProfiler profiler, World world, RenderQueue queue, AudioDispatcher audio,
+                       BitmapFont font, Texture white) {
+        this.profiler = profiler;
+        this.world = world;
+        this.queue = queue;
+        this.audio = audio;
+        this.font = font;
+        this.white = white;
+        this.glProfiler = new GLProfiler(Gdx.graphics);
+    }
+
+    public void toggle() {
+        visible = !visible;
+        profiler.setEnabled(visible);
+        if (visible) {
+            glProfiler.enable();
+        } else {
+            glProfiler.disable();
+        }
+    }
+
+    public boolean isVisible() {
+        return visible;
+    }
+
+    public void beginFrame() {
+        if (!visible) return;
+        glProfiler.reset();
+        profiler.beginFrame();
+    }
+
+    // Sample the counters for everything drawn so far this frame. The batch
+    // has to be drawing; it is flushed so its pending sprites are counted
+    public void endFrame(SpriteBatch batch, float deltaTime) {
+        if (!visible) return;
+        batch.flush();
+        profiler.endFrame(deltaTime);
+        renderCalls = batch.totalRenderCalls - lastTotalRenderCalls;
+        textureBindings = glProfiler.getTextureBindings();
+        drawCalls = glProfiler.getDrawCalls();
+        shaderSwitches = glProfiler.getShaderSwitches();
+    }
+
+    // Draw in the top right corner of the current projection, as the last
+    // thing in the frame's batch pass. Leaves the font at scale 1
+    public void render(SpriteBatch batch, float worldWidth, float worldHeight) {
+        if (!visible) return;
+        float x = worldWidth - WIDTH - 10;
+        float top = worldHeight - 10;
+        float height = GRAPH_HEIGHT * 2 + 30 + LINE_HEIGHT * 16;
+
+        batch.setColor(0, 0, 0, 0.6f);
+        batch.draw(white, x - 5, top - height, WIDTH + 10, height + 5);
+
+        float graphY = top - GRAPH_HEIGHT;
+        drawGraph(batch, x, graphY, false);
+        drawGraph(batch, x, graphY - GRAPH_HEIGHT - 15, true);
+        batch.setColor(1, 1, 1, 1);
+
+        font.getData().setScale(1f);
+        font.setColor(1, 1, 1, 1);
+        font.draw(batch, "frame", x + 2, graphY + GRAPH_HEIGHT - 2);
+        font.draw(batch, "cpu", x + 2, graphY - 17);
+
+        float y = graphY - GRAPH_HEIGHT - 25;
+        text.setLength(0);
+        text.append("frame ");
+        appendMillis(profiler.getAverageFrameTime());
+        text.append("  cpu ");
+        appendMillis(profiler.getAverageCpuTime());
+        text.append("  fps ").append(Gdx.graphics.getFramesPerSecond());
+        y = line(batch, x, y);
+
+        for (FrameProfiler.Phase phase : FrameProfiler.Phase.values()) {
+            text.setLength(0);
+            text.append(phase.name().toLowerCase()).append(' ');
+            appendMillis(profiler.getAverage(phase));
+            text.append("  max ");
+            appendMillis(profiler.getMax(phase));
+            y = line(batch, x, y);
+        }
+
+        text.setLength(0);
+        text.append("batch flushes ").append(renderCalls).append("  draw calls ").append(drawCalls);
+        y = line(batch, x, y);
+        text.setLength(0);
+        text.append("texture binds ").append(textureBindings).append("  shader switches ").append(shaderSwitches);
+        y = line(batch, x, y);
+        text.setLength(0);
+        text.append("queue flushes ").append(queue.getFlushes())
+            .append("  switches ").append(queue.getTextureSwitches())
+            .append(" (unsorted ").append(queue.getUnsortedTextureSwitches()).append(')');
+        y = line(batch, x, y);
+
+        text.setLength(0);
+        text.append("bullets ").append(world.bullets.size)
+            .append("  monsters ").append(world.monsters.size)
+            .append("  coins ").append(world.coins.size);
+        y = line(batch, x, y);
+        text.setLength(0);
+        text.append("sounds ").append(audio.getPlayed())
+            .append("  merged ").append(audio.getMerged())
+            .append("  dropped ").append(audio.getDropped())
+            .append("  stolen ").append(audio.getStolen());
+        y = line(batch, x, y);
+
+        Runtime runtime = Runtime.getRuntime();
+        long gcCount = 0;
+        for (GarbageCollectorMXBean collector : collectors) {
+            gcCount += Math.max(0, collector.getCollectionCount());
+        }
+        text.setLength(0);
+        text.append("heap ").append((runtime.totalMemory() - runtime.freeMemory()) >> 20)
+            .append('/').append(runtime.maxMemory() >> 20).append(" MB  gc ").append(gcCount);
+        line(batch, x, y);
+        batch.flush();
+
+        // The overlay's own flushes belong to the next frame's count
+        lastTotalRenderCalls = batch.totalRenderCalls;
+    }
+
+    private void drawGraph(SpriteBatch batch, float x, float y, boolean cpu) {
+        float barWidth = WIDTH / FrameProfiler.HISTORY;
+        for (int age = 0; age < profiler.getFrames(); age++) {
+            float ms = cpu ? profiler.getCpuTime(age) : profiler.getFrameTime(age);
+            if (ms <= BUDGET_MS) {
+                batch.setColor(0.2f, 0.9f, 0.2f, 1f);
+            } else if (ms <= BUDGET_MS * 2) {
+                batch.setColor(1f, 0.8f, 0.1f, 1f);
+            } else {
+                batch.setColor(1f, 0.2f, 0.2f, 1f);
+            }
+            float barHeight = Math.min(ms, GRAPH_MAX_MS) / GRAPH_MAX_MS * GRAPH_HEIGHT;
+            // Newest frame on the right
+            batch.draw(white, x + WIDTH - (age + 1) * barWidth, y, barWidth, barHeight);
+        }
+
+        // 60 Hz budget line
+        batch.setColor(1, 1, 1, 0.5f);
+        batch.draw(white, x, y + BUDGET_MS / GRAPH_MAX_MS * GRAPH_HEIGHT, WIDTH, 1);
+    }
+
+    private float line(SpriteBatch batch, float x, float y) {
+        font.draw(batch, text, x, y);
+        return y - LINE_HEIGHT;
+    }
+
+    // Append ms with two decimals without going through String.format
+    private void appendMillis(float ms) {
+        int hundredths = Math.round(ms * 100);
+        text.append(hundredths / 100).append('.');
+        int fraction = hundredths % 100;
+        if (fraction < 10) text.append('0');
+        text.append(fraction).append(" ms");
+    }
+}
@@ -0,0 +1,133 @@
+package com.xc.mygdxgame;
+
+import com.badlogic.gdx.Gdx;
+
+// Lowers visual cost one step at a time while frames take longer than the
+// budget, and gives it back once they clearly fit again. Decisions follow
+// the measured work of a frame, CPU and GPU, not the frame interval: with
+// vsync the interval sits at the refresh period whenever a frame fits, so it
+// cannot tell how much headroom there is. Measuring the GPU means waiting
+// for it, so only every SAMPLE_INTERVAL-th frame is measured. Every decision
+// needs a full window of samples since the last change. Raising quality also
+// has to wait with headroom for a while, and that wait doubles each time a
+// raise is followed by a drop.
+public final class QualityController {
+    // In the order they are given up, cheapest to lose first
+    public enum Step {
+        FEWER_STARS("fewer stars"),
+        NO_SCREEN_SHAKE("no screen shake"),
+        NO_HIT_FLASH("no hit flash"),
+        NEAREST_BACKGROUNDS("nearest filtered backgrounds"),
+        RENDER_SCALE_75("75% render scale"),
+        RENDER_SCALE_50("50% render scale");
+
+        private final String description;
+
+        Step(String description) {
+            this.description = description;
+        }
+    }
+
+    private static final Step[] STEPS = Step.values();
+    private static final int SAMPLE_INTERVAL = 4;       // Frames between work time samples
+    private static final int WINDOW = 15;               // Samples averaged for a decision, 60 frames
+    private static final float DROP_RATIO = 1.05f;      // Average over budget * this lowers quality
+    private static final float RAISE_RATIO = 0.7f;      // Average under budget * this leaves room to raise quality
+    private static final float RAISE_DELAY = 3f;        // Seconds with room before raising quality
+    private static final float MAX_RAISE_DELAY = 60f;
+    private static final float STALL_TIME = 0.25f;      // Longer frames are hitches, e.g. loading or a window drag
+
+    private final float budget;
+    private final float[] workTimes = new float[WINDOW];
+    private int samples;
+    private int head;
+    private float sum;
+    private int frameCount;
+    private float sinceSample;  // Seconds of frames since the last sample
+
+    private int level;  // Number of steps given up
+    private float onBudgetTime;
+    private float raiseDelay = RAISE_DELAY;
+    private boolean lastChangeRaised;
+
+    public QualityController(float targetFps) {
+        budget = 1f / targetFps;
+    }
+
+    // Whether the current frame's work time should be measured for update
+    public boolean isSampleFrame() {
+        return frameCount % SAMPLE_INTERVAL == 0;
+    }
+
+    // Add a frame: deltaTime is the interval since the previous one and
+    // workTime the time this frame took including the GPU, or negative when
+    // it was not measured. Returns whether the quality level changed
+    public boolean update(float deltaTime, float workTime) {
+        if (deltaTime > STALL_TIME) return false;
+        frameCount++;
+        sinceSample += deltaTime;
+        if (workTime < 0) return false;
+        float elapsed = sinceSample;
+        sinceSample = 0;
+
+        if (samples == WINDOW) sum -= workTimes[head];
+        else samples++;
+        workTimes[head] = workTime;
+        head = (head + 1) % WINDOW;
+        sum += workTime;
+        if (samples < WINDOW) return false;
+
+        float average = sum / WINDOW;
+        if (average > budget * DROP_RATIO) {
+            onBudgetTime = 0;
+            if (level == STEPS.length) return false;
+            if (lastChangeRaised) {
+                // The last raise did not hold
+                raiseDelay = Math.min(raiseDelay * 2, MAX_RAISE_DELAY);
+            }
+            lastChangeRaised = false;
+            level++;
+            log(average, "over", "lowered, " + STEPS[level - 1].description);
+            resetWindow();
+            return true;
+        }
+
+        if (level > 0 && average <= budget * RAISE_RATIO) {
+            onBudgetTime += elapsed;
+            if (onBudgetTime >= raiseDelay) {
+                level--;
+                lastChangeRaised = true;
+                if (level == 0) raiseDelay = RAISE_DELAY;
+                log(average, "well within", "raised, undid " + STEPS[level].description);
+                onBudgetTime = 0;
+                resetWindow();
+                return true;
+            }
+        } else {
+            onBudgetTime = 0;
+        }
+        return false;
+    }
+
+    // Whether step has been given up
+    public boolean isReduced(Step step) {
+        return level > step.ordinal();
+    }
+
+    public int getLevel() {
+        return level;
+    }
+
+    // Forget the samples so far, e.g. after loading or a screen mode change
+    public void resetWindow() {
+        samples = 0;
+        head = 0;
+        sum = 0;
+        sinceSample = 0;
+    }
+
+    private void log(float average, String relation, String decision) {
+        Gdx.app.log("Quality", "Work time " + Math.round(average * 10000) / 10f + " ms " + relation
+            + " the " + Math.round(budget * 10000) / 10f + " ms budget, level " + level + ": " + decision);
+    }
+}
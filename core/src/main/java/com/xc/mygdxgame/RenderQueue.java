@@ -0,0 +1,215 @@
+package com.xc.mygdxgame;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.utils.ObjectIntMap;
+import java.util.Arrays;
+
+// Collects a frame's sprites and text, each with a layer, and draws them
+// sorted by layer and then by texture, so everything sharing a texture within
+// a layer goes out in one batch flush. Layers draw in ascending order; within
+// a layer and texture, submission order is kept. Anything that has to cover
+// something with a different texture needs a higher layer.
+public final class RenderQueue {
+    private static final int SEQUENCE_BITS = 20;  // Commands per frame
+    private static final int TEXTURE_BITS = 20;
+    private static final int MAX_COMMANDS = 1 << SEQUENCE_BITS;
+
+    // Commands in parallel arrays; text commands have a font and no region
+    private TextureRegion[] regions;
+    private BitmapFont[] fonts;
+    private CharSequence[] texts;
+    private float[] x;
+    private float[] y;
+    private float[] width;   // Text: font scale x
+    private float[] height;  // Text: font scale y
+    private float[] originX;
+    private float[] originY;
+    private float[] rotation;
+    private float[] colors;
+    private int[] textureIds;
+    private long[] keys;  // layer, texture id, sequence; unique, so a plain sort is stable
+    private int size;
+
+    // Ids only order one frame's commands, so the map is cleared with the
+    // queue and never keeps a released texture alive or hands out a stale id
+    private final ObjectIntMap<Texture> textureIdMap = new ObjectIntMap<Texture>();
+    private float packedColor = Color.WHITE_FLOAT_BITS;
+    private final Color fontColor = new Color();
+
+    // Statistics of the last submit
+    private int flushes;
+    private int textureSwitches;
+    private int unsortedTextureSwitches;
+
+    public RenderQueue(int capacity) {
+        allocate(Math.max(1, capacity));
+    }
+
+    // Tint for the sprites submitted after this, like Batch.setColor
+    public void setColor(float r, float g, float b, float a) {
+        packedColor = Color.toFloatBits(r, g, b, a);
+    }
+
+    public void draw(int layer, TextureRegion region, float x, float y, float width, float height) {
+        draw(layer, region, x, y, 0, 0, width, height, 0);
+    }
+
+    public void draw(int layer, TextureRegion region, float x, float y, float originX, float originY,
+                     float width, float height, float rotation) {
+        int i = add(layer, region.getTexture());
+        regions[i] = region;
+        this.x[i] = x;
+        this.y[i] = y;
+        this.width[i] = width;
+        this.height[i] = height;
+        this.originX[i] = originX;
+        this.originY[i] = originY;
+        this.rotation[i] = rotation;
+        colors[i] = packedColor;
+    }
+
+    // Text with the font's current color and scale. text is read when the
+    // queue is submitted, so it must not change before then
+    public void drawText(int layer, BitmapFont font, CharSequence text, float x, float y) {
+        int i = add(layer, font.getRegion().getTexture());
+        fonts[i] = font;
+        texts[i] = text;
+        this.x[i] = x;
+        this.y[i] = y;
+        width[i] = font.getData().scaleX;
+        height[i] = font.getData().scaleY;
+        colors[i] = font.getColor().toFloatBits();
+    }
+
+    private int add(int layer, Texture texture) {
+        if (size == keys.length) {
+            if (size == MAX_COMMANDS) throw new IllegalStateException("Too many render commands: " + size);
+            grow(Math.min(size * 2, MAX_COMMANDS));
+        }
+        int textureId = textureIdMap.get(texture, -1);
+        if (textureId < 0) {
+            textureId = textureIdMap.size;
+            textureIdMap.put(texture, textureId);
+        }
+        int i = size++;
+        textureIds[i] = textureId;
+        keys[i] = ((long)layer << (TEXTURE_BITS + SEQUENCE_BITS)) | ((long)textureId << SEQUENCE_BITS) | i;
+        return i;
+    }
+
+    // Draw everything in order and clear the queue. The batch has to be
+    // drawing; it is flushed at the end so the flush count covers the queue
+    public void submit(SpriteBatch batch) {
+        int renderCallsBefore = batch.totalRenderCalls;
+        unsortedTextureSwitches = countSwitches(false);
+        Arrays.sort(keys, 0, size);
+        textureSwitches = countSwitches(true);
+
+        float batchColor = batch.getPackedColor();
+        for (int k = 0; k < size; k++) {
+            int i = (int)(keys[k] & (MAX_COMMANDS - 1));
+            if (regions[i] != null) {
+                batch.setPackedColor(colors[i]);
+                batch.draw(regions[i], x[i], y[i], originX[i], originY[i], width[i], height[i], 1, 1, rotation[i]);
+            } else {
+                BitmapFont font = fonts[i];
+                float scaleX = font.getData().scaleX, scaleY = font.getData().scaleY;
+                float fontColorBits = font.getColor().toFloatBits();
+                font.getData().setScale(width[i], height[i]);
+                Color.abgr8888ToColor(fontColor, colors[i]);
+                font.setColor(fontColor);
+                font.draw(batch, texts[i], x[i], y[i]);
+                font.getData().setScale(scaleX, scaleY);
+                Color.abgr8888ToColor(fontColor, fontColorBits);
+                font.setColor(fontColor);
+            }
+        }
+        batch.setPackedColor(batchColor);
+        batch.flush();
+        flushes = batch.totalRenderCalls - renderCallsBefore;
+        clear();
+    }
+
+    // Texture changes when drawing in sorted or in submission order
+    private int countSwitches(boolean sorted) {
+        int switches = 0;
+        int last = -1;
+        for (int k = 0; k < size; k++) {
+            int i = sorted ? (int)(keys[k] & (MAX_COMMANDS - 1)) : k;
+            if (textureIds[i] != last) {
+                if (last >= 0) switches++;
+                last = textureIds[i];
+            }
+        }
+        return switches;
+    }
+
+    public void clear() {
+        // Drop references so nothing is kept alive by the queue
+        Arrays.fill(regions, 0, size, null);
+        Arrays.fill(fonts, 0, size, null);
+        Arrays.fill(texts, 0, size, null);
+        textureIdMap.clear();
+        size = 0;
+        packedColor = Color.WHITE_FLOAT_BITS;
+    }
+
+    // Batch flushes caused by the last submit
+    public int getFlushes() {
+        return flushes;
+    }
+
+    // Texture switches in the last submit, after sorting
+    public int getTextureSwitches() {
+        return textureSwitches;
+    }
+
+    // Texture switches the last submit would have had in submission order
+    public int getUnsortedTextureSwitches() {
+        return unsortedTextureSwitches;
+    }
+
+    private void allocate(int capacity) {
+        regions = new TextureRegion[capacity];
+        fonts = new BitmapFont[capacity];
+        texts = new CharSequence[capacity];
+        x = new float[capacity];
+        y = new float[capacity];
+        width = new float[capacity];
+        height = new float[capacity];
+        originX = new float[capacity];
+        originY = new float[capacity];
+        rotation = new float[capacity];
+        colors = new float[capacity];
+        textureIds = new int[capacity];
+        keys = new long[capacity];
+    }
+
+    private void grow(int capacity) {
+        TextureRegion[] oldRegions = regions;
+        BitmapFont[] oldFonts = fonts;
+        CharSequence[] oldTexts = texts;
+        float[] oldX = x, oldY = y, oldWidth = width, oldHeight = height;
+        float[] oldOriginX = originX, oldOriginY = originY, oldRotation = rotation, oldColors = colors;
+        int[] oldTextureIds = textureIds;
+        long[] oldKeys = keys;
+        allocate(capacity);
+        System.arraycopy(oldRegions, 0, regions, 0, size);
+        System.arraycopy(oldFonts, 0, fonts, 0, size);
+        System.arraycopy(oldTexts, 0, texts, 0, size);
+        System.arraycopy(oldX, 0, x, 0, size);
+        System.arraycopy(oldY, 0, y, 0, size);
+        System.arraycopy(oldWidth, 0, width, 0, size);
+        System.arraycopy(oldHeight, 0, height, 0, size);
+        System.arraycopy(oldOriginX, 0, originX, 0, size);
+        System.arraycopy(oldOriginY, 0, originY, 0, size);
+        System.arraycopy(oldRotation, 0, rotation, 0, size);
+        System.arraycopy(oldColors, 0, colors, 0, size);
+        System.arraycopy(oldTextureIds, 0, textureIds, 0, size);
+        System.arraycopy(oldKeys, 0, keys, 0, size);
+    }
+}
@@ -0,0 +1,224 @@
+package com.xc.mygdxgame;
+
+import com.badlogic.gdx.utils.ByteArray;
+import com.badlogic.gdx.utils.IntArray;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+// Input recording of one level: the seed and settings the level started with,
+// the controls of every tick, and optionally a world checksum every few
+// simulated ticks. Controls are stored as run-length encoded bit sets, so
+// holding a key costs one run however long it is held. Paused frames are
+// recorded as PAUSE runs and are not simulated on playback. Checksums walk
+// the whole world, so they are taken every few ticks rather than every one.
+public final class Replay {
+    static final int UP = 1;
+    static final int DOWN = 1 << 1;
+    static final int LEFT = 1 << 2;
+    static final int RIGHT = 1 << 3;
+    static final int FIRE = 1 << 4;
+    static final int PAUSE = 1 << 5;
+
+    private static final int MAGIC = 0x53445250;  // "SDRP"
+    private static final int VERSION = 3;  // 3: checksums every checksumInterval ticks, or none
+
+    // Level start
+    long seed;
+    Difficulty difficulty;
+    WaterGunType gun;
+    int gunLevel;
+    float width;
+    float height;
+    float stepTime;
+
+    // Runs of identical input bits, and one checksum per checksumInterval simulated ticks
+    private final ByteArray runBits = new ByteArray();
+    private final IntArray runLengths = new IntArray();
+    private final IntArray checksums = new IntArray();
+    private int checksumInterval;
+    private int ticks;
+    private boolean recording;
+
+    // Start recording a level the world was just reset to, with a checksum
+    // after every checksumInterval-th tick; 0 records input only
+    public void begin(World world, float stepTime, int checksumInterval) {
+        seed = world.getSeed();
+        difficulty = world.difficulty;
+        gun = world.gun;
+        gunLevel = world.gun.getLevel();
+        width = world.width;
+        height = world.height;
+        this.stepTime = stepTime;
+        this.checksumInterval = Math.max(0, checksumInterval);
+        runBits.clear();
+        runLengths.clear();
+        checksums.clear();
+        ticks = 0;
+        recording = true;
+    }
+
+    // Stop recording, e.g. when the recording would no longer play back
+    public void end() {
+        recording = false;
+    }
+
+    public boolean isRecording() {
+        return recording;
+    }
+
+    // Record a simulated tick: the input it ran with and the state it produced
+    public void record(InputFrame input, World world) {
+        if (!recording) return;
+        append(bits(input));
+        ticks++;
+        if (hasChecksum(ticks - 1)) checksums.add(world.checksum());
+    }
+
+    // Record a frame spent paused
+    public void recordPause() {
+        if (!recording) return;
+        append(PAUSE);
+    }
+
+    private void append(int bits) {
+        int last = runBits.size - 1;
+        if (last >= 0 && runBits.items[last] == bits) {
+            runLengths.items[last]++;
+        } else {
+            runBits.add((byte)bits);
+            runLengths.add(1);
+        }
+    }
+
+    public int getRunCount() {
+        return runBits.size;
+    }
+
+    public int getRunBits(int run) {
+        return runBits.get(run);
+    }
+
+    public int getRunLength(int run) {
+        return runLengths.get(run);
+    }
+
+    public int getTicks() {
+        return ticks;
+    }
+
+    public int getChecksumInterval() {
+        return checksumInterval;
+    }
+
+    // Whether a checksum was recorded after simulated tick tick
+    public boolean hasChecksum(int tick) {
+        return checksumInterval > 0 && (tick + 1) % checksumInterval == 0;
+    }
+
+    // World checksum after simulated tick tick, where hasChecksum(tick)
+    public int getChecksum(int tick) {
+        return checksums.get((tick + 1) / checksumInterval - 1);
+    }
+
+    // A world in the state the recorded level started from. Sets the gun's
+    // level, which is global, so only use this where nothing else is running
+    public World createWorld() {
+        World world = new World(width, height, new GameRandom(seed));
+        world.setDifficulty(difficulty);
+        gun.setLevel(gunLevel);
+        world.setGun(gun);
+        world.resetLevel();
+        return world;
+    }
+
+    static int bits(InputFrame input) {
+        return (input.up ? UP : 0) | (input.down ? DOWN : 0) | (input.left ? LEFT : 0)
+            | (input.right ? RIGHT : 0) | (input.fire ? FIRE : 0);
+    }
+
+    static InputFrame toInput(int bits, InputFrame input) {
+        return input.set((bits & UP) != 0, (bits & DOWN) != 0, (bits & LEFT) != 0,
+            (bits & RIGHT) != 0, (bits & FIRE) != 0);
+    }
+
+    public void write(OutputStream stream) throws IOException {
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream));
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeLong(seed);
+        out.writeByte(difficulty.ordinal());
+        out.writeByte(gun.getId());
+        out.writeByte(gunLevel);
+        out.writeFloat(width);
+        out.writeFloat(height);
+        out.writeFloat(stepTime);
+        out.writeInt(runBits.size);
+        for (int i = 0; i < runBits.size; i++) {
+            out.writeByte(runBits.items[i]);
+            writeVarInt(out, runLengths.items[i]);
+        }
+        out.writeInt(checksumInterval);
+        out.writeInt(checksums.size);
+        for (int i = 0; i < checksums.size; i++) {
+            out.writeInt(checksums.items[i]);
+        }
+        out.flush();
+    }
+
+    public static Replay read(InputStream stream) throws IOException {
+        DataInputStream in = new DataInputStream(stream);
+        if (in.readInt() != MAGIC) throw new IOException("Not a replay file");
+        int version = in.readInt();
+        if (version != VERSION) throw new IOException("Unsupported replay version " + version);
+
+        Replay replay = new Replay();
+        replay.seed = in.readLong();
+        replay.difficulty = Difficulty.values()[in.readByte()];
+        int gunId = in.readByte();
+        for (WaterGunType gun : WaterGunType.values()) {
+            if (gun.getId() == gunId) replay.gun = gun;
+        }
+        if (replay.gun == null) throw new IOException("Unknown gun " + gunId);
+        replay.gunLevel = in.readByte();
+        replay.width = in.readFloat();
+        replay.height = in.readFloat();
+        replay.stepTime = in.readFloat();
+        int runs = in.readInt();
+        for (int i = 0; i < runs; i++) {
+            byte bits = in.readByte();
+            int length = readVarInt(in);
+            replay.runBits.add(bits);
+            replay.runLengths.add(length);
+            if ((bits & PAUSE) == 0) replay.ticks += length;
+        }
+        replay.checksumInterval = in.readInt();
+        int checksums = in.readInt();
+        for (int i = 0; i < checksums; i++) {
+            replay.checksums.add(in.readInt());
+        }
+        return replay;
+    }
+
+    // 7 bits per byte, most runs fit in one or two
+    private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    private static int readVarInt(DataInputStream in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return value;
+        }
+        throw new IOException("Malformed run length");
+    }
+}
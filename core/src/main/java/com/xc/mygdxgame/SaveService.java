@@ -0,0 +1,305 @@
+package com.xc.mygdxgame;
+
+import com.badlogic.gdx.Preferences;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+// Write-behind Preferences. Puts only update memory and mark the save dirty;
+// flush() hands the write to a background thread, so several puts in a row
+// (or a flush per coin) become one file write. A timer also writes anything
+// left dirty. Files use the same XML format as the desktop backend's
+// preferences and are replaced through a temp file and an atomic rename, so
+// a crash mid-write leaves the previous save intact.
+public final class SaveService implements Preferences {
+    private static final long AUTO_FLUSH_SECONDS = 5;
+
+    private final File file;
+    private final Properties properties = new Properties();
+    private final ScheduledExecutorService writer;
+    private final Object fileLock = new Object();  // Held for a whole write, snapshot to rename
+
+    // Guarded by properties
+    private boolean dirty;
+    private boolean writeQueued;
+
+    public SaveService(File file) {
+        this.file = file;
+        load();
+
+        writer = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable task) {
+                Thread thread = new Thread(task, "SaveService");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        writer.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                write();
+            }
+        }, AUTO_FLUSH_SECONDS, AUTO_FLUSH_SECONDS, TimeUnit.SECONDS);
+    }
+
+    private void load() {
+        if (!file.exists()) return;
+        InputStream in = null;
+        try {
+            in = new BufferedInputStream(new FileInputStream(file));
+            properties.loadFromXML(in);
+        } catch (Exception e) {
+            System.err.println("Error loading save file " + file + ": " + e.getMessage());
+        } finally {
+            close(in);
+        }
+    }
+
+    // Queue a background write of the current values; returns immediately
+    @Override
+    public void flush() {
+        synchronized (properties) {
+            if (!dirty || writeQueued || writer.isShutdown()) return;
+            writeQueued = true;
+        }
+        writer.execute(new Runnable() {
+            @Override
+            public void run() {
+                write();
+            }
+        });
+    }
+
+    // Let queued writes finish, stop the writer thread, then write whatever is left
+    public void dispose() {
+        writer.shutdown();
+        boolean terminated = false;
+        try {
+            terminated = writer.awaitTermination(2, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!terminated) {
+            // A slow write is still running; write() waits for it to finish
+            System.err.println("Save writer still busy after 2 s, writing " + file + " after it");
+        }
+        write();
+    }
+
+    public boolean isDirty() {
+        synchronized (properties) {
+            return dirty;
+        }
+    }
+
+    // Runs on the writer thread, or on the caller in dispose(). One write at a
+    // time: two would share the temp file, and the snapshot is taken inside
+    // so an older one can never be renamed over a newer one
+    private void write() {
+        synchronized (fileLock) {
+            writeSnapshot();
+        }
+    }
+
+    private void writeSnapshot() {
+        Properties snapshot;
+        synchronized (properties) {
+            writeQueued = false;
+            if (!dirty) return;
+            dirty = false;
+            snapshot = (Properties)properties.clone();
+        }
+
+        File parent = file.getAbsoluteFile().getParentFile();
+        File temp = new File(parent, file.getName() + ".tmp");
+        OutputStream out = null;
+        try {
+            if (parent != null) parent.mkdirs();
+            out = new BufferedOutputStream(new FileOutputStream(temp));
+            snapshot.storeToXML(out, null);
+            out.close();
+            out = null;
+            try {
+                Files.move(temp.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE,
+                           StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            System.err.println("Error writing save file " + file + ": " + e.getMessage());
+            // Try again on the next flush
+            synchronized (properties) {
+                dirty = true;
+            }
+        } finally {
+            close(out);
+        }
+    }
+
+    private static void close(Closeable stream) {
+        if (stream == null) return;
+        try {
+            stream.close();
+        } catch (IOException ignored) {
+        }
+    }
+
+    private Preferences set(String key, String value) {
+        synchronized (properties) {
+            Object old = properties.setProperty(key, value);
+            if (!value.equals(old)) dirty = true;
+        }
+        return this;
+    }
+
+    @Override
+    public Preferences putBoolean(String key, boolean val) {
+        return set(key, Boolean.toString(val));
+    }
+
+    @Override
+    public Preferences putInteger(String key, int val) {
+        return set(key, Integer.toString(val));
+    }
+
+    @Override
+    public Preferences putLong(String key, long val) {
+        return set(key, Long.toString(val));
+    }
+
+    @Override
+    public Preferences putFloat(String key, float val) {
+        return set(key, Float.toString(val));
+    }
+
+    @Override
+    public Preferences putString(String key, String val) {
+        return set(key, val);
+    }
+
+    @Override
+    public Preferences put(Map<String, ?> vals) {
+        for (Map.Entry<String, ?> val : vals.entrySet()) {
+            set(val.getKey(), String.valueOf(val.getValue()));
+        }
+        return this;
+    }
+
+    @Override
+    public boolean getBoolean(String key) {
+        return getBoolean(key, false);
+    }
+
+    @Override
+    public int getInteger(String key) {
+        return getInteger(key, 0);
+    }
+
+    @Override
+    public long getLong(String key) {
+        return getLong(key, 0);
+    }
+
+    @Override
+    public float getFloat(String key) {
+        return getFloat(key, 0);
+    }
+
+    @Override
+    public String getString(String key) {
+        return getString(key, "");
+    }
+
+    @Override
+    public boolean getBoolean(String key, boolean defValue) {
+        String value = properties.getProperty(key);
+        return value == null ? defValue : Boolean.parseBoolean(value);
+    }
+
+    @Override
+    public int getInteger(String key, int defValue) {
+        String value = properties.getProperty(key);
+        if (value == null) return defValue;
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            return defValue;
+        }
+    }
+
+    @Override
+    public long getLong(String key, long defValue) {
+        String value = properties.getProperty(key);
+        if (value == null) return defValue;
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            return defValue;
+        }
+    }
+
+    @Override
+    public float getFloat(String key, float defValue) {
+        String value = properties.getProperty(key);
+        if (value == null) return defValue;
+        try {
+            return Float.parseFloat(value);
+        } catch (NumberFormatException e) {
+            return defValue;
+        }
+    }
+
+    @Override
+    public String getString(String key, String defValue) {
+        return properties.getProperty(key, defValue);
+    }
+
+    @Override
+    public Map<String, ?> get() {
+        Map<String, String> map = new HashMap<String, String>();
+        synchronized (properties) {
+            for (String key : properties.stringPropertyNames()) {
+                map.put(key, properties.getProperty(key));
+            }
+        }
+        return map;
+    }
+
+    @Override
+    public boolean contains(String key) {
+        return properties.containsKey(key);
+    }
+
+    @Override
+    public void clear() {
+        synchronized (properties) {
+            if (properties.isEmpty()) return;
+            properties.clear();
+            dirty = true;
+        }
+    }
+
+    @Override
+    public void remove(String key) {
+        synchronized (properties) {
+            if (properties.remove(key) != null) dirty = true;
+        }
+    }
+}
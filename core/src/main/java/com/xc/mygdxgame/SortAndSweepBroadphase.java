@@ -0,0 +1,152 @@
+package com.xc.mygdxgame;
+
+import com.badlogic.gdx.utils.IntArray;
+
+// Broadphase that sorts boxes by their left edge and sweeps the x range of a
+// query. Kept as an alternative to UniformGridBroadphase for benchmarking;
+// insertion sort is close to linear here because monsters are inserted in
+// spawn order, which is nearly sorted by x already. Nearest queries walk
+// left and right from the query x until the x gap alone is too large.
+public final class SortAndSweepBroadphase implements Broadphase {
+    private int count;
+    private int[] ids = new int[64];
+    private float[] boxX = new float[64];
+    private float[] boxY = new float[64];
+    private float[] boxWidth = new float[64];
+    private float[] boxHeight = new float[64];
+
+    // Box indices ordered by left edge, and the left edges in that order
+    private int[] order = new int[64];
+    private float[] sortedX = new float[64];
+    private float maxWidth;
+
+    private final NearestCollector nearest = new NearestCollector();
+
+    @Override
+    public void setBounds(float worldWidth, float worldHeight) {
+        // Unbounded, nothing to resize
+    }
+
+    @Override
+    public void clear() {
+        count = 0;
+        maxWidth = 0;
+    }
+
+    @Override
+    public void insert(int id, float x, float y, float width, float height) {
+        if (count == ids.length) {
+            int capacity = count * 2;
+            ids = copyOf(ids, capacity);
+            boxX = copyOf(boxX, capacity);
+            boxY = copyOf(boxY, capacity);
+            boxWidth = copyOf(boxWidth, capacity);
+            boxHeight = copyOf(boxHeight, capacity);
+            order = new int[capacity];
+            sortedX = new float[capacity];
+        }
+        ids[count] = id;
+        boxX[count] = x;
+        boxY[count] = y;
+        boxWidth[count] = width;
+        boxHeight[count] = height;
+        if (width > maxWidth) maxWidth = width;
+        count++;
+    }
+
+    @Override
+    public void build() {
+        // Insertion sort by left edge
+        for (int i = 0; i < count; i++) {
+            float x = boxX[i];
+            int k = i - 1;
+            while (k >= 0 && sortedX[k] > x) {
+                order[k + 1] = order[k];
+                sortedX[k + 1] = sortedX[k];
+                k--;
+            }
+            order[k + 1] = i;
+            sortedX[k + 1] = x;
+        }
+    }
+
+    @Override
+    public void query(float x, float y, float width, float height, IntArray out) {
+        out.clear();
+
+        // No box starting left of x - maxWidth can reach x
+        int k = lowerBound(x - maxWidth);
+        float right = x + width;
+        float top = y + height;
+        for (; k < count && sortedX[k] <= right; k++) {
+            int entry = order[k];
+            if (boxX[entry] + boxWidth[entry] < x) continue;
+            if (boxY[entry] > top || boxY[entry] + boxHeight[entry] < y) continue;
+            out.add(ids[entry]);
+        }
+    }
+
+    @Override
+    public int nearest(float x, float y, Filter filter) {
+        search(x, y, 1, Float.POSITIVE_INFINITY, filter);
+        return nearest.first();
+    }
+
+    @Override
+    public int nearestWithin(float x, float y, float radius, Filter filter) {
+        search(x, y, 1, radius * radius, filter);
+        return nearest.first();
+    }
+
+    @Override
+    public void nearest(float x, float y, int k, Filter filter, IntArray out) {
+        search(x, y, k, Float.POSITIVE_INFINITY, filter);
+        nearest.copyTo(out);
+    }
+
+    private void search(float x, float y, int k, float maxDistanceSq, Filter filter) {
+        nearest.reset(k, maxDistanceSq);
+        if (count == 0 || k <= 0) return;
+
+        int start = lowerBound(x);
+        int left = start - 1, right = start;
+        while (left >= 0 || right < count) {
+            float leftGap = left >= 0 ? x - sortedX[left] : Float.POSITIVE_INFINITY;
+            float rightGap = right < count ? sortedX[right] - x : Float.POSITIVE_INFINITY;
+            float gap = Math.min(leftGap, rightGap);
+            if (gap * gap > nearest.bound()) break;
+
+            int entry = leftGap <= rightGap ? order[left--] : order[right++];
+            if (filter != null && !filter.accept(ids[entry])) continue;
+            float dx = boxX[entry] - x;
+            float dy = boxY[entry] - y;
+            nearest.offer(ids[entry], dx * dx + dy * dy);
+        }
+    }
+
+    // First sorted index whose left edge is >= x
+    private int lowerBound(float x) {
+        int low = 0, high = count;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sortedX[mid] < x) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static int[] copyOf(int[] array, int capacity) {
+        int[] copy = new int[capacity];
+        System.arraycopy(array, 0, copy, 0, array.length);
+        return copy;
+    }
+
+    private static float[] copyOf(float[] array, int capacity) {
+        float[] copy = new float[capacity];
+        System.arraycopy(array, 0, copy, 0, array.length);
+        return copy;
+    }
+}
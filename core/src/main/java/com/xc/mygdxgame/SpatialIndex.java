@@ -0,0 +1,22 @@
+package com.xc.mygdxgame;
+
+import com.badlogic.gdx.utils.IntArray;
+
+// Nearest neighbour queries over the boxes inserted into a broadphase.
+// Distances are measured from the query point to the box origin (the x, y
+// passed to insert), which is where auto-aim has always pointed.
+public interface SpatialIndex {
+    // Lets the caller skip entries that went stale since the last build
+    interface Filter {
+        boolean accept(int id);
+    }
+
+    // Id of the closest accepted entry, or -1 if there is none
+    int nearest(float x, float y, Filter filter);
+
+    // Id of the closest accepted entry no further than radius, or -1
+    int nearestWithin(float x, float y, float radius, Filter filter);
+
+    // Replace out with the ids of up to k closest accepted entries, closest first
+    void nearest(float x, float y, int k, Filter filter, IntArray out);
+}
@@ -0,0 +1,126 @@
+package com.xc.mygdxgame;
+
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Mesh;
+import com.badlogic.gdx.graphics.VertexAttribute;
+import com.badlogic.gdx.graphics.VertexAttributes.Usage;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.glutils.ShaderProgram;
+import com.badlogic.gdx.utils.Disposable;
+
+// Twinkling background stars drawn as one static mesh. Each star is a quad
+// that only knows its index; the vertex shader hashes the index into a
+// position, size and twinkle phase, so nothing is updated on the CPU and the
+// stars always cover whatever world size is passed in.
+public final class Starfield implements Disposable {
+    public static final int MAX_STARS = 16383;  // Four vertices each must fit in short indices
+
+    private static final String VERTEX_SHADER =
+        "#ifdef GL_ES\n" +
+        "precision highp float;\n" +
+        "#endif\n" +
+        "attribute vec2 a_corner;\n" +
+        "attribute float a_index;\n" +
+        "uniform mat4 u_projTrans;\n" +
+        "uniform vec2 u_worldSize;\n" +
+        "uniform float u_time;\n" +
+        "varying float v_brightness;\n" +
+        "float hash(float n) {\n" +
+        "    return fract(sin(n) * 43758.5453);\n" +
+        "}\n" +
+        "void main() {\n" +
+        "    vec2 position = vec2(hash(a_index * 12.9898 + 1.0), hash(a_index * 78.233 + 2.0)) * u_worldSize;\n" +
+        "    float size = 1.0 + hash(a_index * 37.719 + 3.0) * 2.0;\n" +
+        "    float phase = hash(a_index * 93.989 + 4.0);\n" +
+        "    float twinkle = sin(u_time * (0.5 + phase * 2.0) + phase * 6.2831853);\n" +
+        "    v_brightness = 0.75 + 0.25 * twinkle;\n" +
+        "    gl_Position = u_projTrans * vec4(position + a_corner * size, 0.0, 1.0);\n" +
+        "}\n";
+
+    private static final String FRAGMENT_SHADER =
+        "#ifdef GL_ES\n" +
+        "precision mediump float;\n" +
+        "#endif\n" +
+        "varying float v_brightness;\n" +
+        "void main() {\n" +
+        "    gl_FragColor = vec4(v_brightness, v_brightness, v_brightness, 1.0);\n" +
+        "}\n";
+
+    private static final float TIME_WRAP = 3600f;  // Keeps u_time small enough for float precision
+
+    private final Mesh mesh;
+    private final ShaderProgram shader;
+    private final int count;
+    private int visibleCount;
+
+    public Starfield(int count) {
+        this.count = Math.max(0, Math.min(count, MAX_STARS));
+
+        ShaderProgram program = new ShaderProgram(VERTEX_SHADER, FRAGMENT_SHADER);
+        if (!program.isCompiled()) {
+            // Not worth failing over, the game just has no stars
+            System.err.println("Error compiling starfield shader: " + program.getLog());
+            program.dispose();
+            program = null;
+        }
+        shader = program;
+        visibleCount = this.count;
+
+        mesh = new Mesh(true, this.count * 4, this.count * 6,
+            new VertexAttribute(Usage.Position, 2, "a_corner"),
+            new VertexAttribute(Usage.Generic, 1, "a_index"));
+        float[] vertices = new float[this.count * 4 * 3];
+        short[] indices = new short[this.count * 6];
+        for (int i = 0; i < this.count; i++) {
+            int v = i * 12;
+            vertices[v] = 0;      vertices[v + 1] = 0;      vertices[v + 2] = i;
+            vertices[v + 3] = 1;  vertices[v + 4] = 0;      vertices[v + 5] = i;
+            vertices[v + 6] = 1;  vertices[v + 7] = 1;      vertices[v + 8] = i;
+            vertices[v + 9] = 0;  vertices[v + 10] = 1;     vertices[v + 11] = i;
+            short first = (short)(i * 4);
+            int k = i * 6;
+            indices[k] = first;
+            indices[k + 1] = (short)(first + 1);
+            indices[k + 2] = (short)(first + 2);
+            indices[k + 3] = (short)(first + 2);
+            indices[k + 4] = (short)(first + 3);
+            indices[k + 5] = first;
+        }
+        mesh.setVertices(vertices);
+        mesh.setIndices(indices);
+    }
+
+    // Draw every star over [0, worldWidth] x [0, worldHeight] with the batch's
+    // projection, in the middle of its pass. The batch has to be drawing; what
+    // it has so far is flushed first, and its shader is bound again after
+    public void render(Batch batch, float worldWidth, float worldHeight, float time) {
+        if (shader == null || visibleCount == 0) return;
+        batch.flush();
+        shader.bind();
+        shader.setUniformMatrix("u_projTrans", batch.getProjectionMatrix());
+        shader.setUniformf("u_worldSize", worldWidth, worldHeight);
+        shader.setUniformf("u_time", time % TIME_WRAP);
+        mesh.render(shader, GL20.GL_TRIANGLES, 0, visibleCount * 6);
+        batch.getShader().bind();
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    // Draw only the first visibleCount stars. They are spread evenly, so
+    // fewer stars still cover the whole world
+    public void setVisibleCount(int visibleCount) {
+        this.visibleCount = Math.max(0, Math.min(visibleCount, count));
+    }
+
+    public int getVisibleCount() {
+        return visibleCount;
+    }
+
+    @Override
+    public void dispose() {
+        mesh.dispose();
+        if (shader != null) shader.dispose();
+    }
+}
@@ -0,0 +1,237 @@
+package com.xc.mygdxgame;
+
+import com.badlogic.gdx.utils.IntArray;
+import java.util.Arrays;
+
+// Broadphase that buckets boxes into fixed size cells covering the world.
+// build() is a counting sort of box references by cell, so rebuilding every
+// step allocates nothing once the arrays have grown to the peak entity count.
+// Boxes outside the world are clamped into the border cells.
+// Nearest queries search rings of cells outward from the query point and stop
+// once no unvisited cell can hold anything closer.
+public final class UniformGridBroadphase implements Broadphase {
+    private final float cellSize;
+    private int columns;
+    private int rows;
+
+    // Inserted boxes
+    private int count;
+    private int[] ids = new int[64];
+    private float[] boxX = new float[64];
+    private float[] boxY = new float[64];
+    private float[] boxWidth = new float[64];
+    private float[] boxHeight = new float[64];
+
+    // Cell c holds cellEntries[cellStart[c] .. cellStart[c + 1])
+    private int[] cellStart;
+    private int[] cellFill;
+    private int[] cellEntries = new int[256];
+
+    // Marks boxes already reported by the current query
+    private int[] stamps = new int[64];
+    private int stamp;
+
+    private final NearestCollector nearest = new NearestCollector();
+
+    public UniformGridBroadphase(float cellSize, float worldWidth, float worldHeight) {
+        this.cellSize = cellSize;
+        setBounds(worldWidth, worldHeight);
+    }
+
+    @Override
+    public void setBounds(float worldWidth, float worldHeight) {
+        columns = Math.max(1, (int)Math.ceil(worldWidth / cellSize));
+        rows = Math.max(1, (int)Math.ceil(worldHeight / cellSize));
+        cellStart = new int[columns * rows + 1];
+        cellFill = new int[columns * rows];
+    }
+
+    @Override
+    public void clear() {
+        count = 0;
+    }
+
+    @Override
+    public void insert(int id, float x, float y, float width, float height) {
+        if (count == ids.length) {
+            int capacity = count * 2;
+            ids = copyOf(ids, capacity);
+            boxX = copyOf(boxX, capacity);
+            boxY = copyOf(boxY, capacity);
+            boxWidth = copyOf(boxWidth, capacity);
+            boxHeight = copyOf(boxHeight, capacity);
+            stamps = copyOf(stamps, capacity);
+        }
+        ids[count] = id;
+        boxX[count] = x;
+        boxY[count] = y;
+        boxWidth[count] = width;
+        boxHeight[count] = height;
+        count++;
+    }
+
+    @Override
+    public void build() {
+        int[] cellStart = this.cellStart;
+        Arrays.fill(cellStart, 0);
+
+        // Count references per cell
+        int references = 0;
+        for (int i = 0; i < count; i++) {
+            int minColumn = column(boxX[i]), maxColumn = column(boxX[i] + boxWidth[i]);
+            int minRow = row(boxY[i]), maxRow = row(boxY[i] + boxHeight[i]);
+            for (int r = minRow; r <= maxRow; r++) {
+                for (int c = minColumn; c <= maxColumn; c++) {
+                    cellStart[r * columns + c + 1]++;
+                }
+            }
+            references += (maxColumn - minColumn + 1) * (maxRow - minRow + 1);
+        }
+
+        // Prefix sum turns counts into start offsets
+        for (int c = 1; c < cellStart.length; c++) {
+            cellStart[c] += cellStart[c - 1];
+        }
+        if (references > cellEntries.length) {
+            cellEntries = new int[Math.max(references, cellEntries.length * 2)];
+        }
+
+        // Fill the buckets
+        System.arraycopy(cellStart, 0, cellFill, 0, cellFill.length);
+        for (int i = 0; i < count; i++) {
+            int minColumn = column(boxX[i]), maxColumn = column(boxX[i] + boxWidth[i]);
+            int minRow = row(boxY[i]), maxRow = row(boxY[i] + boxHeight[i]);
+            for (int r = minRow; r <= maxRow; r++) {
+                for (int c = minColumn; c <= maxColumn; c++) {
+                    cellEntries[cellFill[r * columns + c]++] = i;
+                }
+            }
+        }
+    }
+
+    @Override
+    public void query(float x, float y, float width, float height, IntArray out) {
+        out.clear();
+        if (count == 0) return;
+
+        if (++stamp == 0) {
+            // Stamp wrapped around, old marks could collide with new ones
+            Arrays.fill(stamps, 0);
+            stamp = 1;
+        }
+
+        int minColumn = column(x), maxColumn = column(x + width);
+        int minRow = row(y), maxRow = row(y + height);
+        for (int r = minRow; r <= maxRow; r++) {
+            for (int c = minColumn; c <= maxColumn; c++) {
+                int cell = r * columns + c;
+                for (int k = cellStart[cell], end = cellStart[cell + 1]; k < end; k++) {
+                    int entry = cellEntries[k];
+                    if (stamps[entry] == stamp) continue;
+                    stamps[entry] = stamp;
+                    out.add(ids[entry]);
+                }
+            }
+        }
+    }
+
+    @Override
+    public int nearest(float x, float y, Filter filter) {
+        search(x, y, 1, Float.POSITIVE_INFINITY, filter);
+        return nearest.first();
+    }
+
+    @Override
+    public int nearestWithin(float x, float y, float radius, Filter filter) {
+        search(x, y, 1, radius * radius, filter);
+        return nearest.first();
+    }
+
+    @Override
+    public void nearest(float x, float y, int k, Filter filter, IntArray out) {
+        search(x, y, k, Float.POSITIVE_INFINITY, filter);
+        nearest.copyTo(out);
+    }
+
+    private void search(float x, float y, int k, float maxDistanceSq, Filter filter) {
+        nearest.reset(k, maxDistanceSq);
+        if (count == 0 || k <= 0) return;
+
+        if (x < 0 || y < 0 || x >= columns * cellSize || y >= rows * cellSize) {
+            // The ring bound assumes the point is inside the grid, scan everything instead
+            for (int i = 0; i < count; i++) {
+                offer(i, x, y, filter);
+            }
+            return;
+        }
+
+        if (++stamp == 0) {
+            Arrays.fill(stamps, 0);
+            stamp = 1;
+        }
+
+        int centerColumn = column(x), centerRow = row(y);
+        int maxRing = Math.max(Math.max(centerColumn, columns - 1 - centerColumn),
+                               Math.max(centerRow, rows - 1 - centerRow));
+        for (int ring = 0; ring <= maxRing; ring++) {
+            int minColumn = centerColumn - ring, maxColumn = centerColumn + ring;
+            int minRow = centerRow - ring, maxRow = centerRow + ring;
+            for (int r = Math.max(0, minRow); r <= Math.min(rows - 1, maxRow); r++) {
+                boolean edgeRow = r == minRow || r == maxRow;
+                for (int c = Math.max(0, minColumn); c <= Math.min(columns - 1, maxColumn); c++) {
+                    // Only the outline of the square is new in this ring
+                    if (!edgeRow && c != minColumn && c != maxColumn) continue;
+                    int cell = r * columns + c;
+                    for (int j = cellStart[cell], end = cellStart[cell + 1]; j < end; j++) {
+                        int entry = cellEntries[j];
+                        if (stamps[entry] == stamp) continue;
+                        stamps[entry] = stamp;
+                        offer(entry, x, y, filter);
+                    }
+                }
+            }
+
+            // Everything outside this ring is at least this far from the point
+            float reach = Math.min(Math.min(x - minColumn * cellSize, (maxColumn + 1) * cellSize - x),
+                                   Math.min(y - minRow * cellSize, (maxRow + 1) * cellSize - y));
+            if (reach * reach >= nearest.bound()) break;
+        }
+    }
+
+    private void offer(int entry, float x, float y, Filter filter) {
+        if (filter != null && !filter.accept(ids[entry])) return;
+        float dx = boxX[entry] - x;
+        float dy = boxY[entry] - y;
+        nearest.offer(ids[entry], dx * dx + dy * dy);
+    }
+
+    public int getColumns() {
+        return columns;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    private int column(float x) {
+        int c = (int)Math.floor(x / cellSize);
+        return c < 0 ? 0 : c >= columns ? columns - 1 : c;
+    }
+
+    private int row(float y) {
+        int r = (int)Math.floor(y / cellSize);
+        return r < 0 ? 0 : r >= rows ? rows - 1 : r;
+    }
+
+    private static int[] copyOf(int[] array, int capacity) {
+        int[] copy = new int[capacity];
+        System.arraycopy(array, 0, copy, 0, array.length);
+        return copy;
+    }
+
+    private static float[] copyOf(float[] array, int capacity) {
+        float[] copy = new float[capacity];
+        System.arraycopy(array, 0, copy, 0, array.length);
+        return copy;
+    }
+}
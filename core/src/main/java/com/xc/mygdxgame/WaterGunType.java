@@ -0,0 +1,49 @@
+package com.xc.mygdxgame;
+
+// Water gun type enumeration
+enum WaterGunType {
+    BASIC(0, "Basic Water Gun", 0),
+    WATER_GUN_2(1, "Super Soaker", 100),    // Changed from 1000 to 100
+    WATER_GUN_3(2, "Hydro Cannon", 200),    // Changed from 2000 to 200
+    WATER_GUN_4(3, "Ultimate Blaster", 300); // Changed from 3000 to 300
+
+    private final int id;
+    private final String name;
+    private final int price;
+    private int level = 1;
+    private static final int MAX_LEVEL = 3;
+
+    WaterGunType(int id, String name, int price) {
+        this.id = id;
+        this.name = name;
+        this.price = price;
+    }
+
+    public int getId() { return id; }
+    public String getName() { return name; }
+    public int getPrice() { return price; }
+    public int getLevel() { return level; }
+    
+    // Modify upgrade price calculation method
+    public int getUpgradePrice() {
+        // First upgrade costs 10 coins
+        // Second upgrade costs 20 coins
+        // Third upgrade costs 30 coins
+        return level * 10;
+    }
+    
+    public boolean canUpgrade() {
+        return level < MAX_LEVEL;
+    }
+    
+    public void upgrade() {
+        if (level < MAX_LEVEL) {
+            level++;
+        }
+    }
+
+    // Used to restore the level a replay was recorded with
+    void setLevel(int level) {
+        this.level = Math.max(1, Math.min(level, MAX_LEVEL));
+    }
+}
@@ -0,0 +1,795 @@
+package com.xc.mygdxgame;
+
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+
+// Gameplay simulation without any Gdx/GL dependency.
+// Main feeds it an InputFrame per step and draws the resulting state.
+public class World {
+    // Set plane display size
+    static final float PLANE_WIDTH = 48f;
+    static final float PLANE_HEIGHT = 48f;
+
+    // Set bullet size
+    static final float BULLET_WIDTH = 24f;  // Decreased bullet width
+    static final float BULLET_HEIGHT = 12f;  // Decreased bullet height
+
+    // Set enemy display size
+    static final float MONSTER_WIDTH = 48f;
+    static final float MONSTER_HEIGHT = 48f;
+
+    // Set Boss size
+    static final float BOSS_WIDTH = 96f;
+    static final float BOSS_HEIGHT = 96f;
+
+    // Coin size
+    static final float COIN_WIDTH = 24f;  // Changed coin width from 48 to 24
+    static final float COIN_HEIGHT = 24f; // Changed coin height from 48 to 24
+
+    // Game related constants
+    static final float PLANE_SPEED = 500f;  // Increased from 300f to 500f
+    static final int POINTS_PER_KILL = 100;
+    static final float SPAWN_INTERVAL = 3.0f;
+    static final int MAX_LIVES = 5;  // Maximum health limit
+    static final float INVINCIBLE_DURATION = 2f; // Invincibility time 2 seconds
+    static final float BASE_BULLET_SPEED = 300f;  // Decreased base bullet speed
+    static final float AUTO_ATTACK_INTERVAL = 0.5f;
+    static final float BOSS_MOVE_INTERVAL = 2.0f;  // Interval for Boss to change target position
+    static final float BOSS_SPEED = 200f;  // Boss movement speed
+    static final float ENEMY_BULLET_SPEED = 400f;
+    static final int BULLET_CAPACITY = 512;  // Preallocated bullet slots
+    static final int MONSTER_CAPACITY = 64;  // Preallocated monster slots
+    static final int EVENT_CAPACITY = 1024;  // Events between two drains, a frame's steps at most
+
+    // Difficulty dependent values
+    private final DifficultySettings easySettings;
+    private final DifficultySettings normalSettings;
+    private final DifficultySettings hardSettings;
+    float monsterSpeed = 150f;
+    float monsterVerticalSpeed = 100f;
+    int monsterCount = 6;
+    float shootInterval = 0.5f;
+
+    private final GameRandom random;
+    private FrameProfiler profiler = new FrameProfiler();  // Disabled until the overlay is shown
+
+    // World bounds
+    final float width;
+    final float height;
+
+    // Side effects of the steps (sound, saving, effects), drained by the
+    // game after stepping so the world stays GL free
+    public final GameEvents events = new GameEvents(EVENT_CAPACITY);
+
+    Difficulty difficulty = Difficulty.EASY;
+    WaterGunType gun = WaterGunType.BASIC;
+
+    // Player
+    float planeX;
+    float planeY;
+    float prevPlaneX;  // Positions at the previous step, used for render interpolation
+    float prevPlaneY;
+    int lives = 3;
+    boolean isInvincible;
+    float invincibleTimer;
+
+    // Entities
+    final MonsterStore monsters = new MonsterStore(MONSTER_CAPACITY);
+    final BulletStore bullets = new BulletStore(BULLET_CAPACITY);
+    final Array<Coin> coins = new Array<Coin>();
+
+    // Boss
+    boolean isBossActive;
+    int bossHealth;
+    float bossX;
+    float bossY;
+    float prevBossX;
+    float prevBossY;
+    private float bossTargetY;
+    private float bossMoveCooldown;
+    private float bossShootTimer;
+
+    // Progress
+    int currentScore;
+    int ducksKilled;
+    int currentLevelCoins;
+    private int coinsToBank;  // Picked up but not yet added to the player's total, see takeCollectedCoins
+    boolean isGameOver;
+    boolean isLevelComplete;
+
+    private float shootTimer;
+    private float spawnTimer;
+    private float autoAttackTimer;
+
+    // Monster broadphase, rebuilt every step before collisions. Ids are
+    // indices into monsters, which only compacts right before a rebuild
+    private Broadphase broadphase;
+    private final IntArray candidates = new IntArray();
+    private final SpatialIndex.Filter liveMonsters = new SpatialIndex.Filter() {
+        @Override
+        public boolean accept(int id) {
+            return monsters.get(id).active;
+        }
+    };
+
+    // Collision rectangles reused every step
+    private final Rectangle planeRect = new Rectangle();
+    private final Rectangle bulletRect = new Rectangle();
+    private final Rectangle monsterRect = new Rectangle();
+    private final Rectangle bossRect = new Rectangle();
+    private final Rectangle coinRect = new Rectangle();
+
+    public World(float width, float height, GameRandom random) {
+        this.width = width;
+        this.height = height;
+        this.random = random;
+        this.broadphase = new UniformGridBroadphase(MONSTER_WIDTH, width, height);
+
+        // Easy mode: ducks move slow, fewer number
+        easySettings = new DifficultySettings(
+            100f,  // slower movement speed
+            50f,   // slower vertical speed
+            4,     // fewer ducks
+            0.6f,  // longer shooting interval
+            1.0f   // standard water gun power
+        );
+
+        // Normal mode: balanced difficulty
+        normalSettings = new DifficultySettings(
+            150f,  // medium movement speed
+            100f,  // medium vertical speed
+            6,     // medium number of ducks
+            0.4f,  // medium shooting interval
+            1.2f   // slightly stronger water gun power
+        );
+
+        // Hard mode: ducks move fast, more number
+        hardSettings = new DifficultySettings(
+            200f,  // faster movement speed
+            150f,  // faster vertical speed
+            8,     // more number of ducks
+            0.3f,  // shorter shooting interval
+            1.5f   // stronger water gun power
+        );
+    }
+
+    // Receives per-phase timings of each step
+    public void setProfiler(FrameProfiler profiler) {
+        this.profiler = profiler;
+    }
+
+    // Swap the collision broadphase, e.g. to compare implementations
+    public void setBroadphase(Broadphase broadphase) {
+        this.broadphase = broadphase;
+        broadphase.setBounds(width, height);
+        rebuildMonsterIndex();
+    }
+
+    // Restart the random streams; takes effect for the next reset
+    public void setSeed(long seed) {
+        random.setSeed(seed);
+    }
+
+    public long getSeed() {
+        return random.getSeed();
+    }
+
+    public void setGun(WaterGunType gun) {
+        this.gun = gun;
+    }
+
+    public void setDifficulty(Difficulty difficulty) {
+        this.difficulty = difficulty == null ? Difficulty.EASY : difficulty;
+
+        DifficultySettings settings;
+        switch (this.difficulty) {
+            case EASY:
+                settings = easySettings;
+                break;
+            case HARD:
+                settings = hardSettings;
+                break;
+            default:
+                settings = normalSettings;
+                break;
+        }
+
+        monsterSpeed = settings.duckSpeed;
+        monsterVerticalSpeed = settings.duckVerticalSpeed;
+        monsterCount = settings.duckCount;
+        shootInterval = settings.shootInterval;
+    }
+
+    // Start the current difficulty from scratch
+    public void reset() {
+        resetLevel();
+
+        // Fully reset game only when these values are reset
+        currentLevelCoins = 0;  // Reset current level coin count
+        ducksKilled = 0;  // Reset kill count
+    }
+
+    // Start the current difficulty, keeping ducksKilled and currentLevelCoins
+    public void resetLevel() {
+        isGameOver = false;
+        isLevelComplete = false;
+
+        // Reset boss-related states
+        isBossActive = false;
+        bossHealth = 100;
+        bossShootTimer = 0;
+        bossTargetY = 0;
+        bossMoveCooldown = 0;
+
+        // Timers carry no meaning across levels, and a replay starts from zero
+        shootTimer = 0;
+        spawnTimer = 0;
+        autoAttackTimer = 0;
+
+        // Reset player position
+        planeX = PLANE_WIDTH;
+        planeY = height / 2f - PLANE_HEIGHT / 2f;
+        prevPlaneX = planeX;
+        prevPlaneY = planeY;
+
+        // Clear existing enemies, bullets and coins
+        bullets.clear();
+        coins.clear();
+        events.clear();  // Nothing from the old level is handled
+
+        // Reset lives
+        lives = 3;
+        isInvincible = false;
+        invincibleTimer = 0;
+
+        // Reset current score to prevent boss appearing immediately
+        currentScore = 0;
+
+        spawnMonsters();
+    }
+
+    // Advance the simulation by deltaTime seconds
+    public void step(float deltaTime, InputFrame input) {
+        if (isGameOver || isLevelComplete) return;
+
+        profiler.begin(FrameProfiler.Phase.PLANE);
+        updatePlane(deltaTime, input);
+        profiler.end(FrameProfiler.Phase.PLANE);
+        profiler.begin(FrameProfiler.Phase.BULLETS);
+        updateBullets(deltaTime, input);
+        profiler.end(FrameProfiler.Phase.BULLETS);
+        profiler.begin(FrameProfiler.Phase.MONSTERS);
+        updateMonsters(deltaTime);
+        profiler.end(FrameProfiler.Phase.MONSTERS);
+        profiler.begin(FrameProfiler.Phase.COINS);
+        updateCoins(deltaTime);
+        profiler.end(FrameProfiler.Phase.COINS);
+        profiler.begin(FrameProfiler.Phase.COLLISIONS);
+        checkCollisions(deltaTime);
+        profiler.end(FrameProfiler.Phase.COLLISIONS);
+    }
+
+    void spawnMonsters() {
+        monsters.clear();
+
+        // Generate enemies based on difficulty settings
+        switch (difficulty) {
+            case NORMAL:
+                // Normal mode: two rows alternate
+                for (int i = 0; i < monsterCount; i++) {
+                    float x = width + (i % 2) * 100;
+                    float y = random.spawn.nextFloat() * (height - MONSTER_HEIGHT);
+                    spawnMonster(x, y, MonsterType.FAST);
+                }
+                break;
+
+            case HARD:
+                // Hard mode: three rows dense formation
+                for (int i = 0; i < monsterCount; i++) {
+                    float x = width + (i % 3) * 80;
+                    float y = random.spawn.nextFloat() * (height - MONSTER_HEIGHT);
+                    spawnMonster(x, y, MonsterType.TOUGH);
+                }
+                break;
+
+            default:
+                // Easy mode: random position, slow movement
+                for (int i = 0; i < monsterCount; i++) {
+                    float x = width + random.spawn.nextFloat() * 200;
+                    float y = random.spawn.nextFloat() * (height - MONSTER_HEIGHT);
+                    spawnMonster(x, y, MonsterType.NORMAL);
+                }
+                break;
+        }
+
+        rebuildMonsterIndex();
+    }
+
+    private Monster spawnMonster(float x, float y, MonsterType type) {
+        Monster monster = monsters.spawn(x, y, type);
+        monster.shootTimer = random.ai.nextFloat() * 2.0f;  // Random initial shooting time
+        monster.shootInterval = 1.5f + random.ai.nextFloat() * 1.5f;  // Random shooting interval 1.5-3 seconds
+        return monster;
+    }
+
+    // Recycle dead monsters, then rebucket the live ones by their current index
+    private void rebuildMonsterIndex() {
+        monsters.compact();
+        broadphase.clear();
+        for (int i = 0; i < monsters.size; i++) {
+            Monster monster = monsters.get(i);
+            broadphase.insert(i, monster.x, monster.y, MONSTER_WIDTH, MONSTER_HEIGHT);
+        }
+        broadphase.build();
+    }
+
+    void updatePlane(float deltaTime, InputFrame input) {
+        prevPlaneX = planeX;
+        prevPlaneY = planeY;
+
+        // Free movement
+        if (input.up) {
+            planeY += PLANE_SPEED * deltaTime;
+        }
+        if (input.down) {
+            planeY -= PLANE_SPEED * deltaTime;
+        }
+        if (input.left) {
+            planeX -= PLANE_SPEED * deltaTime;
+        }
+        if (input.right) {
+            planeX += PLANE_SPEED * deltaTime;
+        }
+
+        // Ensure plane doesn't move out of screen range
+        planeX = Math.max(0, Math.min(planeX, width - PLANE_WIDTH));
+        planeY = Math.max(0, Math.min(planeY, height - PLANE_HEIGHT));
+    }
+
+    void updateBullets(float deltaTime, InputFrame input) {
+        // Update existing bullets and remove bullets out of screen
+        bullets.integrate(deltaTime);
+        bullets.removeOutside(width, height);
+
+        // Increase bullet speed based on level, each level adds 20%
+        float speedMultiplier = 1.0f + (gun.getLevel() - 1) * 0.2f;
+        float bulletSpeed = BASE_BULLET_SPEED * speedMultiplier;
+
+        // Player shooting
+        shootTimer += deltaTime;
+        if (input.fire && shootTimer >= shootInterval) {
+            shootTimer = 0;
+
+            switch (gun) {
+                case BASIC:
+                    // Single shot straight line
+                    createBullet(planeX + PLANE_WIDTH, planeY + PLANE_HEIGHT/2,
+                           bulletSpeed, 0, false);
+                    break;
+
+                case WATER_GUN_2:
+                    // Double shot
+                    createBullet(planeX + PLANE_WIDTH, planeY + PLANE_HEIGHT/2 + 10,
+                           bulletSpeed, 0, false);
+                    createBullet(planeX + PLANE_WIDTH, planeY + PLANE_HEIGHT/2 - 10,
+                           bulletSpeed, 0, false);
+                    break;
+
+                case WATER_GUN_3:
+                case WATER_GUN_4:
+                    // Triple shot, can block enemy bullets
+                    createBullet(planeX + PLANE_WIDTH, planeY + PLANE_HEIGHT/2,
+                           bulletSpeed, 0, true);
+                    createBullet(planeX + PLANE_WIDTH, planeY + PLANE_HEIGHT/2 + 15,
+                           bulletSpeed, 0, true);
+                    createBullet(planeX + PLANE_WIDTH, planeY + PLANE_HEIGHT/2 - 15,
+                           bulletSpeed, 0, true);
+                    break;
+            }
+
+            events.push(GameEvents.Type.SHOT, 0, planeX, planeY);
+        }
+
+        // Water gun 4's auto-attack also uses the new speed calculation
+        if (gun == WaterGunType.WATER_GUN_4) {
+            autoAttackTimer += deltaTime;
+            if (autoAttackTimer >= AUTO_ATTACK_INTERVAL) {
+                autoAttackTimer = 0;
+                Monster target = findNearestEnemy();
+                if (target != null) {
+                    float dx = target.x - planeX;
+                    float dy = target.y - planeY;
+                    float angle = (float)Math.atan2(dy, dx);
+
+                    createBullet(planeX + PLANE_WIDTH/2,
+                               planeY + PLANE_HEIGHT/2,
+                               bulletSpeed * (float)Math.cos(angle),
+                               bulletSpeed * (float)Math.sin(angle),
+                               true);
+                }
+            }
+        }
+    }
+
+    // Helper method: Create bullet
+    private void createBullet(float x, float y, float vx, float vy, boolean canBlock) {
+        bullets.add(x, y, vx, vy, canBlock ? BulletStore.FLAG_BLOCKING : 0);
+    }
+
+    // Find nearest enemy. Monsters have not moved since the index was last
+    // built, so its positions are current; the filter drops ones killed since
+    Monster findNearestEnemy() {
+        int index = broadphase.nearest(planeX, planeY, liveMonsters);
+        return index < 0 ? null : monsters.get(index);
+    }
+
+    void updateMonsters(float deltaTime) {
+        // Update spawn timer
+        spawnTimer += deltaTime;
+        if (spawnTimer >= SPAWN_INTERVAL && !isBossActive) {
+            // Spawn new enemies on the right
+            float y = random.spawn.nextFloat() * (height - MONSTER_HEIGHT);
+            float x = width;
+            MonsterType type = MonsterType.values()[random.spawn.nextInt(MonsterType.values().length)];
+            spawnMonster(x, y, type);
+            spawnTimer = 0;
+        }
+
+        // Update all enemies
+        for (int i = 0; i < monsters.size; i++) {
+            Monster monster = monsters.get(i);
+            if (!monster.active) continue;
+
+            // Move left
+            monster.prevX = monster.x;
+            monster.prevY = monster.y;
+            monster.x -= monsterSpeed * deltaTime;
+
+            // Remove if off screen
+            if (monster.x + MONSTER_WIDTH < 0) {
+                monster.active = false;
+            }
+
+            // Update shooting
+            monster.shootTimer += deltaTime;
+            if (monster.shootTimer >= monster.shootInterval) {
+                float bulletX = monster.x;
+                float bulletY = monster.y + MONSTER_HEIGHT / 2;
+                bullets.add(bulletX, bulletY, -ENEMY_BULLET_SPEED, 0, BulletStore.FLAG_ENEMY);
+                monster.shootTimer = 0;
+            }
+        }
+
+        // Check if Boss should spawn
+        if (!isBossActive && currentScore >= getBossSpawnScore()) {
+            spawnBoss();
+        }
+
+        // Update Boss
+        if (isBossActive) {
+            updateBoss(deltaTime);
+        }
+    }
+
+    // Adjust Boss spawn score requirement based on difficulty
+    int getBossSpawnScore() {
+        switch (difficulty) {
+            case NORMAL:
+                return 750;  // Medium score in normal mode
+            case HARD:
+                return 1000; // Keep original score in hard mode
+            default:
+                return 500;  // Spawn Boss earlier in easy mode
+        }
+    }
+
+    // Boss health based on difficulty
+    int getBossMaxHealth() {
+        switch (difficulty) {
+            case NORMAL:
+                return 15;  // Second level needs 15 shots
+            case HARD:
+                return 20;  // Third level needs 20 shots
+            default:
+                return 10;  // First level needs 10 shots
+        }
+    }
+
+    void spawnBoss() {
+        isBossActive = true;
+        bossX = width - BOSS_WIDTH;  // Start from right edge
+        bossY = height / 2 - BOSS_HEIGHT / 2;
+        prevBossX = bossX;
+        prevBossY = bossY;
+        bossHealth = getBossMaxHealth();
+        bossShootTimer = 0;
+
+        // Clear all bullets on screen to give player preparation time
+        bullets.clear();
+    }
+
+    void updateBoss(float deltaTime) {
+        prevBossX = bossX;
+        prevBossY = bossY;
+
+        // Boss on the right moves randomly
+        bossX = width - BOSS_WIDTH - 100;  // Fixed X position on the right
+
+        // Update target position
+        bossMoveCooldown += deltaTime;
+        if (bossMoveCooldown >= BOSS_MOVE_INTERVAL) {
+            bossMoveCooldown = 0;
+            // Randomly select new target position
+            bossTargetY = random.boss.nextFloat() * (height - BOSS_HEIGHT);
+        }
+
+        // Move towards target position
+        if (bossY < bossTargetY) {
+            bossY += BOSS_SPEED * deltaTime;
+        } else if (bossY > bossTargetY) {
+            bossY -= BOSS_SPEED * deltaTime;
+        }
+
+        // Ensure Boss doesn't move out of screen
+        bossY = Math.max(0, Math.min(bossY, height - BOSS_HEIGHT));
+
+        // Update shooting timer
+        bossShootTimer += deltaTime;
+        float bossShootInterval = difficulty == Difficulty.EASY ? 1.5f :
+                                  difficulty == Difficulty.NORMAL ? 1.2f : 1.0f;
+
+        // Shoot tracking bullets
+        if (bossShootTimer >= bossShootInterval) {
+            bossShootTimer = 0;
+
+            // Calculate player position
+            float targetX = planeX + PLANE_WIDTH/2;
+            float targetY = planeY + PLANE_HEIGHT/2;
+
+            switch (difficulty) {
+                case EASY:
+                    // Easy mode: 2 types of trajectories
+                    shootTrackingBullet(bossX, bossY + BOSS_HEIGHT/2, targetX, targetY, 300);  // Slow tracking
+                    shootDirectBullet(bossX, bossY + BOSS_HEIGHT/2, -400, 0);  // Straight line fast
+                    break;
+
+                case NORMAL:
+                    // Normal mode: 3 types of trajectories
+                    shootTrackingBullet(bossX, bossY + BOSS_HEIGHT/3, targetX, targetY, 350);  // Upper tracking
+                    shootTrackingBullet(bossX, bossY + BOSS_HEIGHT*2/3, targetX, targetY, 350);  // Lower tracking
+                    shootDirectBullet(bossX, bossY + BOSS_HEIGHT/2, -450, 0);  // Middle straight line
+                    break;
+
+                case HARD:
+                    // Hard mode: 4 types of trajectories
+                    shootTrackingBullet(bossX, bossY + BOSS_HEIGHT/4, targetX, targetY, 400);  // Fast tracking
+                    shootTrackingBullet(bossX, bossY + BOSS_HEIGHT*3/4, targetX, targetY, 400);  // Fast tracking
+                    shootDirectBullet(bossX, bossY + BOSS_HEIGHT/3, -500, 100);  // Upward diagonal shot
+                    shootDirectBullet(bossX, bossY + BOSS_HEIGHT*2/3, -500, -100);  // Downward diagonal shot
+                    break;
+
+                default:
+                    break;
+            }
+
+            events.push(GameEvents.Type.SHOT, 0, bossX, bossY);
+        }
+    }
+
+    // Shoot tracking bullets
+    private void shootTrackingBullet(float startX, float startY, float targetX, float targetY, float speed) {
+        // Calculate direction vector
+        float dx = targetX - startX;
+        float dy = targetY - startY;
+        float length = (float)Math.sqrt(dx * dx + dy * dy);
+
+        // Normalize and set speed
+        float vx = dx / length * speed;
+        float vy = dy / length * speed;
+
+        shootDirectBullet(startX, startY, vx, vy);
+    }
+
+    // Shoot straight bullets
+    private void shootDirectBullet(float startX, float startY, float vx, float vy) {
+        bullets.add(startX, startY, vx, vy, BulletStore.FLAG_ENEMY);
+    }
+
+    void updateCoins(float deltaTime) {
+        // Update existing coins
+        for (int i = coins.size - 1; i >= 0; i--) {
+            Coin coin = coins.get(i);
+            if (coin.active) {
+                coin.prevY = coin.y;
+                coin.y += coin.velocityY * deltaTime;
+
+                // Check if collected
+                coinRect.set(coin.x, coin.y, COIN_WIDTH, COIN_HEIGHT);
+                if (planeRect.overlaps(coinRect)) {
+                    coin.active = false;
+                    currentLevelCoins++;  // Increase current level coin count
+                    coinsToBank++;
+                    events.push(GameEvents.Type.COIN_COLLECTED, currentLevelCoins, coin.x, coin.y);
+                }
+
+                // Check if out of screen
+                if (coin.y < -COIN_HEIGHT) {
+                    coin.active = false;
+                }
+            }
+        }
+
+        // Remove inactive coins
+        for (int i = coins.size - 1; i >= 0; i--) {
+            if (!coins.get(i).active) {
+                coins.removeIndex(i);
+            }
+        }
+    }
+
+    void checkCollisions(float deltaTime) {
+        // Update invincibility time
+        if (isInvincible) {
+            invincibleTimer += deltaTime;
+            if (invincibleTimer >= INVINCIBLE_DURATION) {
+                isInvincible = false;
+                invincibleTimer = 0;
+            }
+        }
+
+        // Update plane collision rectangle
+        planeRect.set(planeX, planeY, PLANE_WIDTH, PLANE_HEIGHT);
+
+        // Bucket live monsters so each bullet only tests its neighbours
+        rebuildMonsterIndex();
+
+        // Check all bullet collisions
+        for (int i = bullets.size - 1; i >= 0; i--) {
+            if (isGameOver || isLevelComplete) return;
+            bulletRect.set(bullets.x[i], bullets.y[i], BULLET_WIDTH, BULLET_HEIGHT);
+
+            if (bullets.isEnemy(i)) {
+                // Check if enemy bullets (including minions and boss) hit the player
+                if (!isInvincible && planeRect.overlaps(bulletRect)) {
+                    // Remove hit bullet
+                    events.push(GameEvents.Type.HIT, 0, bullets.x[i], bullets.y[i]);
+                    bullets.remove(i);
+                    damagePlayer();
+                }
+                continue;
+            }
+
+            // Check collision with normal enemies
+            Monster monster = findOverlappingMonster(bulletRect);
+            if (monster != null) {
+                monster.health--;
+                events.push(GameEvents.Type.HIT, 0, bullets.x[i], bullets.y[i]);
+                bullets.remove(i);
+
+                if (monster.health <= 0) {
+                    killMonster(monster);
+                }
+                continue;
+            }
+
+            // Check collision with Boss
+            if (isBossActive) {
+                bossRect.set(bossX, bossY, BOSS_WIDTH, BOSS_HEIGHT);
+                if (bulletRect.overlaps(bossRect)) {
+                    bossHealth--;
+                    events.push(GameEvents.Type.HIT, 0, bullets.x[i], bullets.y[i]);
+                    bullets.remove(i);
+
+                    if (bossHealth <= 0) {
+                        handleBossDefeated();
+                    }
+                }
+            }
+        }
+
+        // Check direct collision with enemies
+        if (!isInvincible && findOverlappingMonster(planeRect) != null) {
+            damagePlayer();
+        }
+    }
+
+    // First live monster in spawn order overlapping rect, or null
+    private Monster findOverlappingMonster(Rectangle rect) {
+        broadphase.query(rect.x, rect.y, rect.width, rect.height, candidates);
+        int first = Integer.MAX_VALUE;
+        for (int k = 0; k < candidates.size; k++) {
+            int index = candidates.items[k];
+            if (index >= first) continue;
+            Monster monster = monsters.get(index);
+            if (!monster.active) continue;
+
+            monsterRect.set(monster.x, monster.y, MONSTER_WIDTH, MONSTER_HEIGHT);
+            if (rect.overlaps(monsterRect)) {
+                first = index;
+            }
+        }
+        return first == Integer.MAX_VALUE ? null : monsters.get(first);
+    }
+
+    private void killMonster(Monster monster) {
+        monster.active = false;
+        ducksKilled++; // Increase kill count
+        currentScore += POINTS_PER_KILL;
+        events.push(GameEvents.Type.KILL, currentScore, monster.x, monster.y);
+
+        // Drop coins
+        coins.add(new Coin(monster.x + MONSTER_WIDTH/2 - COIN_WIDTH/2,
+                           monster.y + MONSTER_HEIGHT/2 - COIN_HEIGHT/2));
+    }
+
+    private void damagePlayer() {
+        lives--;
+        events.push(GameEvents.Type.PLAYER_DAMAGED, Math.max(lives, 0), planeX, planeY);
+        if (lives <= 0) {
+            isGameOver = true;
+            return;
+        }
+
+        isInvincible = true;
+        invincibleTimer = 0;
+    }
+
+    private void handleBossDefeated() {
+        isBossActive = false;
+
+        // Add reward score
+        currentScore += 500;  // Boss defeated reward 500 points
+
+        // Add life reward
+        if (lives < MAX_LIVES) {
+            lives++;
+        }
+
+        // Level is complete, but keep current difficulty unchanged
+        isLevelComplete = true;
+
+        events.push(GameEvents.Type.BOSS_DEFEATED, currentScore, bossX, bossY);
+    }
+
+    // Coins picked up since the last call, for the player's saved total.
+    // Kept here rather than counted from events so none can be lost
+    public int takeCollectedCoins() {
+        int coins = coinsToBank;
+        coinsToBank = 0;
+        return coins;
+    }
+
+    // Hash of the simulation state, compared tick by tick when a replay is verified
+    public int checksum() {
+        int hash = 17;
+        hash = 31 * hash + Float.floatToIntBits(planeX);
+        hash = 31 * hash + Float.floatToIntBits(planeY);
+        hash = 31 * hash + lives;
+        hash = 31 * hash + (isInvincible ? 1 : 0);
+        hash = 31 * hash + currentScore;
+        hash = 31 * hash + (isBossActive ? bossHealth : -1);
+        hash = 31 * hash + Float.floatToIntBits(bossY);
+        hash = 31 * hash + Float.floatToIntBits(shootTimer);
+        hash = 31 * hash + Float.floatToIntBits(spawnTimer);
+        for (int i = 0; i < monsters.size; i++) {
+            Monster monster = monsters.get(i);
+            if (!monster.active) continue;
+            hash = 31 * hash + Float.floatToIntBits(monster.x);
+            hash = 31 * hash + Float.floatToIntBits(monster.y);
+            hash = 31 * hash + monster.health;
+            hash = 31 * hash + Float.floatToIntBits(monster.shootTimer);
+        }
+        for (int i = 0; i < bullets.size; i++) {
+            hash = 31 * hash + Float.floatToIntBits(bullets.x[i]);
+            hash = 31 * hash + Float.floatToIntBits(bullets.y[i]);
+            hash = 31 * hash + bullets.flags[i];
+        }
+        for (int i = 0; i < coins.size; i++) {
+            Coin coin = coins.get(i);
+            hash = 31 * hash + Float.floatToIntBits(coin.x);
+            hash = 31 * hash + Float.floatToIntBits(coin.y);
+        }
+        return hash;
+    }
+}
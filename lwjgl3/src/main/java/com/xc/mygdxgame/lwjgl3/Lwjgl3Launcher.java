@@ -2,7 +2,9 @@ package com.xc.mygdxgame.lwjgl3;
 
 import com.badlogic.gdx.backends.lwjgl3.Lwjgl3Application;
 import com.badlogic.gdx.backends.lwjgl3.Lwjgl3ApplicationConfiguration;
+import com.badlogic.gdx.backends.lwjgl3.Lwjgl3Files;
 import com.xc.mygdxgame.Main;
+import java.io.File;
 
 /** Launches the desktop (LWJGL3) application. */
 public class Lwjgl3Launcher {
@@ -12,7 +14,9 @@ public class Lwjgl3Launcher {
     }
 
     private static Lwjgl3Application createApplication() {
-        return new Lwjgl3Application(new Main(), getDefaultConfiguration());
+        // Same file the backend's Gdx.app.getPreferences("SpaceGame") uses, so existing saves carry over
+        File saveFile = new File(Lwjgl3Files.externalPath, ".prefs/SpaceGame");
+        return new Lwjgl3Application(new Main(saveFile), getDefaultConfiguration());
     }
 
     private static Lwjgl3ApplicationConfiguration getDefaultConfiguration() {
@@ -28,6 +32,10 @@ public class Lwjgl3Launcher {
         //// useful for testing performance, but can also be very stressful to some hardware.
         //// You may also need to configure GPU drivers to fully disable Vsync; this can cause screen tearing.
         configuration.setWindowedMode(640, 480);
+        //// Main.pause() freezes the game and its music, both when minimized and when another window
+        //// has focus, so the game costs next to nothing when left in the background.
+        configuration.setPauseWhenMinimized(true);
+        configuration.setPauseWhenLostFocus(true);
         //// You can change these files; they are in lwjgl3/src/main/resources/ .
         configuration.setWindowIcon("libgdx128.png", "libgdx64.png", "libgdx32.png", "libgdx16.png");
         return configuration;